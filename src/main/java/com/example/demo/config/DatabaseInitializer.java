@@ -1,5 +1,6 @@
 package com.example.demo.config;
 
+import com.example.demo.model.WaitlistStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,6 +9,10 @@ import org.springframework.core.annotation.Order;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
 @Component
 @Order(1) // Run FIRST, before TestDataInitializer
 public class DatabaseInitializer implements CommandLineRunner {
@@ -19,6 +24,9 @@ public class DatabaseInitializer implements CommandLineRunner {
     
     @Override
     public void run(String... args) {
+        // Outside the catch-all below: the app cannot save team members until this column is converted
+        migrateWorkingHoursColumn();
+
         try {
             logger.info("=== Starting Database Schema Migration ===");
             
@@ -50,10 +58,70 @@ public class DatabaseInitializer implements CommandLineRunner {
                 logger.info("Schema is already up to date - only 'full_name' column exists");
             }
             
+            updateWaitlistStatusConstraint();
+
             logger.info("=== Database Schema Migration Complete ===");
         } catch (Exception e) {
             logger.error("Error during database initialization: " + e.getMessage(), e);
             // Don't throw exception to prevent application startup failure
         }
     }
+
+    /**
+     * team_members.working_hours_per_day used to be a 2-character string ("8"); ddl-auto cannot change
+     * a column's type, so existing tables are converted to smallint here. Values that are not a plain
+     * number of hours become 8, the default shift.
+     *
+     * Ordering: CommandLineRunners run after Hibernate's ddl-auto=update and after the web server has
+     * started, so until this has run, writes to team_members fail against the old column. If the
+     * conversion fails, startup fails too rather than leaving the column as varchar.
+     */
+    private void migrateWorkingHoursColumn() {
+        String checkTypeSql = "SELECT data_type FROM information_schema.columns " +
+                              "WHERE table_name = 'team_members' AND column_name = 'working_hours_per_day'";
+        List<String> types = jdbcTemplate.queryForList(checkTypeSql, String.class);
+        if (types.isEmpty() || !"character varying".equalsIgnoreCase(types.get(0))) {
+            return;
+        }
+
+        logger.info("Converting team_members.working_hours_per_day to smallint...");
+        try {
+            Integer invalid = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM team_members " +
+                    "WHERE working_hours_per_day IS NULL OR TRIM(working_hours_per_day) !~ '^[0-9]{1,2}$'", Integer.class);
+            if (invalid != null && invalid > 0) {
+                logger.warn("{} team members have no valid working hours; setting them to 8", invalid);
+            }
+            jdbcTemplate.execute("ALTER TABLE team_members ALTER COLUMN working_hours_per_day TYPE smallint " +
+                                 "USING CASE WHEN TRIM(working_hours_per_day) ~ '^[0-9]{1,2}$' " +
+                                 "THEN CAST(TRIM(working_hours_per_day) AS smallint) ELSE 8 END");
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not convert team_members.working_hours_per_day to smallint", e);
+        }
+
+        List<String> converted = jdbcTemplate.queryForList(checkTypeSql, String.class);
+        if (!"smallint".equalsIgnoreCase(converted.get(0))) {
+            throw new IllegalStateException("team_members.working_hours_per_day is still " + converted.get(0));
+        }
+        logger.info("Successfully converted working_hours_per_day to smallint");
+    }
+
+    // Hibernate creates a CHECK constraint for the waitlist status enum but ddl-auto=update never
+    // changes it, so statuses added later (FAILED) would be rejected on existing tables. Rebuilding
+    // it locks and re-validates the table, so that only happens when a status is missing.
+    private void updateWaitlistStatusConstraint() {
+        List<String> definitions = jdbcTemplate.queryForList("SELECT check_clause FROM information_schema.check_constraints " +
+                "WHERE constraint_name = 'waitlist_entries_status_check'", String.class);
+        if (definitions.isEmpty() || Arrays.stream(WaitlistStatus.values())
+                .allMatch(status -> definitions.get(0).contains("'" + status.name() + "'"))) {
+            return;
+        }
+
+        logger.info("Updating waitlist_entries_status_check to allow every waitlist status...");
+        String statuses = Arrays.stream(WaitlistStatus.values())
+                .map(status -> "'" + status.name() + "'")
+                .collect(Collectors.joining(", "));
+        jdbcTemplate.execute("ALTER TABLE waitlist_entries DROP CONSTRAINT IF EXISTS waitlist_entries_status_check");
+        jdbcTemplate.execute("ALTER TABLE waitlist_entries ADD CONSTRAINT waitlist_entries_status_check " +
+                             "CHECK (status IN (" + statuses + "))");
+    }
 }
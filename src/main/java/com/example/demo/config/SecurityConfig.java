@@ -1,6 +1,9 @@
 package com.example.demo.config;
 
+import com.example.demo.security.IdempotencyFilter;
 import com.example.demo.security.JwtAuthenticationFilter;
+import com.example.demo.service.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,6 +17,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -29,13 +33,19 @@ public class SecurityConfig {
     private final UserDetailsService userDetailsService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final CorsConfigurationSource corsConfigurationSource;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
 
     public SecurityConfig(UserDetailsService userDetailsService,
                          JwtAuthenticationFilter jwtAuthenticationFilter,
-                         CorsConfigurationSource corsConfigurationSource) {
+                         CorsConfigurationSource corsConfigurationSource,
+                         IdempotencyService idempotencyService,
+                         ObjectMapper objectMapper) {
         this.userDetailsService = userDetailsService;
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
         this.corsConfigurationSource = corsConfigurationSource;
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
     }
 
     @Bean
@@ -69,6 +79,7 @@ public class SecurityConfig {
                     .requestMatchers("/api/notifications/**").permitAll()
 
                 .requestMatchers("/api/customer/services").permitAll()  // Public access for booking
+                .requestMatchers("/api/customer/services/search").permitAll()  // Public service search
                 .requestMatchers("/api/customer/faqs/**").permitAll()  // Public access for FAQs
                 .requestMatchers("/api/customer/questions/**").permitAll()  // Public access for submitting questions
                 .requestMatchers("/api/customer/my-questions/**").permitAll()  // Public access for viewing answered questions
@@ -79,7 +90,9 @@ public class SecurityConfig {
                 .anyRequest().authenticated()
             )
             .authenticationProvider(authenticationProvider())
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            // Idempotency-Key handling runs once the user is known and the request is authorized
+            .addFilterAfter(new IdempotencyFilter(idempotencyService, objectMapper), AuthorizationFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,56 @@
+package com.example.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the pg_trgm extension and the trigram (GIN) indexes behind team member search.
+ * Hibernate's ddl-auto cannot express operator-class indexes, so they are created here.
+ * Other databases (H2 in tests) are skipped; TeamMemberSearchService falls back to its
+ * in-memory n-gram index there.
+ */
+@Component
+@Order(3) // After DatabaseInitializer and TestDataInitializer
+public class TrigramIndexInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrigramIndexInitializer.class);
+
+    private static final String[] INDEXES = {
+            "CREATE INDEX IF NOT EXISTS idx_team_members_full_name_trgm ON team_members USING gin (lower(full_name) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_team_members_address_trgm ON team_members USING gin (lower(address) gin_trgm_ops)",
+            // NICs end in a letter ("123456789V") and are searched case-insensitively
+            "DROP INDEX IF EXISTS idx_team_members_nic_trgm",
+            "CREATE INDEX IF NOT EXISTS idx_team_members_nic_lower_trgm ON team_members USING gin (lower(nic) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_team_members_contact_no_trgm ON team_members USING gin (contact_no gin_trgm_ops)"
+    };
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        try {
+            String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            if (!"PostgreSQL".equalsIgnoreCase(database)) {
+                logger.info("Skipping trigram indexes on " + database);
+                return;
+            }
+
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            for (String index : INDEXES) {
+                jdbcTemplate.execute(index);
+            }
+            logger.info("Trigram indexes for team member search are in place");
+        } catch (Exception e) {
+            // Search still works through the in-memory index
+            logger.error("Could not create trigram indexes: " + e.getMessage(), e);
+        }
+    }
+}
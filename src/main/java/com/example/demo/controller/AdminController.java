@@ -3,22 +3,39 @@ package com.example.demo.controller;
 import com.example.demo.dto.ApiResponse;
 import com.example.demo.dto.AssignedServiceDTO;
 import com.example.demo.dto.EmployeeRequest;
+import com.example.demo.dto.OccupancyCalendarResponse;
 import com.example.demo.dto.ServiceRequest;
 import com.example.demo.dto.ServiceResponse;
 import com.example.demo.dto.UserResponse;
+import com.example.demo.dto.WorkshopSchedulePlan;
 import com.example.demo.dto.AppointmentAdminResponse;
+import com.example.demo.dto.AppointmentChangesResponse;
+import com.example.demo.dto.AppointmentSearchRequest;
+import com.example.demo.dto.AppointmentSearchResponse;
+import com.example.demo.dto.AssignmentProposal;
+import com.example.demo.dto.AutoAssignmentResponse;
+import com.example.demo.dto.BulkAppointmentRequest;
+import com.example.demo.dto.BulkAppointmentResponse;
 import com.example.demo.model.Appointment;
 import com.example.demo.service.AdminService;
+import com.example.demo.service.AppointmentBulkService;
+import com.example.demo.service.AppointmentEventLogService;
 import com.example.demo.service.AppointmentService;
+import com.example.demo.service.AutoAssignmentService;
 import com.example.demo.service.EmployeeServiceService;
+import com.example.demo.service.OccupancyCalendarService;
 import com.example.demo.service.ServiceManagementService;
+import com.example.demo.service.WorkshopScheduleService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -30,7 +47,12 @@ public class AdminController {
     private final AdminService adminService;
     private final ServiceManagementService serviceManagementService;
     private final AppointmentService appointmentService;
+    private final AppointmentBulkService appointmentBulkService;
+    private final AppointmentEventLogService appointmentEventLogService;
     private final EmployeeServiceService employeeServiceService;
+    private final AutoAssignmentService autoAssignmentService;
+    private final WorkshopScheduleService workshopScheduleService;
+    private final OccupancyCalendarService occupancyCalendarService;
 
     @PostMapping("/employees")
     public ResponseEntity<ApiResponse> addEmployee(@Valid @RequestBody EmployeeRequest request) {
@@ -144,6 +166,36 @@ public class AdminController {
         return ResponseEntity.ok(appointments);
     }
 
+    // Filtered, keyset-paginated appointment search
+    @GetMapping("/appointments/search")
+    public ResponseEntity<AppointmentSearchResponse> searchAppointments(@ModelAttribute AppointmentSearchRequest request) {
+        AppointmentSearchResponse response = appointmentService.searchAppointments(request);
+        return ResponseEntity.ok(response);
+    }
+
+    // Appointment changes after a sequence number (all appointments)
+    @GetMapping("/appointments/changes")
+    public ResponseEntity<AppointmentChangesResponse> getAppointmentChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(appointmentEventLogService.getChanges(
+                AppointmentEventLogService.Scope.ADMIN, null, since, limit));
+    }
+
+    // Appointment counts per date, time slot, service type and status for a month (month=yyyy-MM)
+    @GetMapping("/appointments/calendar")
+    public ResponseEntity<OccupancyCalendarResponse> getOccupancyCalendar(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        return ResponseEntity.ok(occupancyCalendarService.getMonth(month));
+    }
+
+    // Same for the seven days from start
+    @GetMapping("/appointments/calendar/week")
+    public ResponseEntity<OccupancyCalendarResponse> getWeeklyOccupancy(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start) {
+        return ResponseEntity.ok(occupancyCalendarService.getWeek(start));
+    }
+
     @PutMapping("/appointments/{id}/approve")
     public ResponseEntity<Appointment> approveAppointment(@PathVariable Long id) {
         Appointment appointment = appointmentService.approveAppointment(id);
@@ -156,6 +208,12 @@ public class AdminController {
         return ResponseEntity.ok(appointment);
     }
 
+    // Bulk approve / reject / assign / set status; returns a result per appointment
+    @PostMapping("/appointments/bulk")
+    public ResponseEntity<BulkAppointmentResponse> bulkUpdateAppointments(@RequestBody BulkAppointmentRequest request) {
+        return ResponseEntity.ok(appointmentBulkService.apply(request));
+    }
+
     @PutMapping("/appointments/{id}/assign/{employeeId}")
     public ResponseEntity<Appointment> assignEmployeeToAppointment(
             @PathVariable Long id,
@@ -164,6 +222,32 @@ public class AdminController {
         return ResponseEntity.ok(appointment);
     }
 
+    // Best employee for an appointment by skill and remaining capacity, without assigning
+    @GetMapping("/appointments/{id}/assignment-proposal")
+    public ResponseEntity<AssignmentProposal> proposeAssignment(@PathVariable Long id) {
+        return ResponseEntity.ok(autoAssignmentService.propose(id));
+    }
+
+    // Assign the proposed employee
+    @PutMapping("/appointments/{id}/auto-assign")
+    public ResponseEntity<AssignmentProposal> autoAssignAppointment(@PathVariable Long id) {
+        return ResponseEntity.ok(autoAssignmentService.apply(id));
+    }
+
+    // Assign all unassigned CONFIRMED appointments of a day
+    @PostMapping("/appointments/auto-assign")
+    public ResponseEntity<AutoAssignmentResponse> autoAssignDay(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(autoAssignmentService.assignDay(date));
+    }
+
+    // Day plan: appointments packed into team members' working hours, with utilisation
+    @GetMapping("/schedule/plan")
+    public ResponseEntity<WorkshopSchedulePlan> getSchedulePlan(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(workshopScheduleService.plan(date));
+    }
+
     // Employee Service Assignment Endpoints
 
     // Assign service to employee
@@ -0,0 +1,83 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.AppointmentStatus;
+import com.example.demo.service.AdminExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+/**
+ * File downloads of the big admin lists, streamed row by row (see AdminExportService).
+ * format=csv (default) or jsonl, in any case; anything else is a 400. gzip=true returns a .gz file.
+ */
+@RestController
+@RequestMapping("/api/admin/export")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminExportController {
+
+    private final AdminExportService adminExportService;
+
+    @GetMapping("/appointments")
+    public ResponseEntity<StreamingResponseBody> exportAppointments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) AppointmentStatus status,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return stream(adminExportService.appointments(from, to, status), format, gzip);
+    }
+
+    @GetMapping("/customers")
+    public ResponseEntity<StreamingResponseBody> exportCustomers(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return stream(adminExportService.customers(from, to, active), format, gzip);
+    }
+
+    @GetMapping("/team-members")
+    public ResponseEntity<StreamingResponseBody> exportTeamMembers(
+            @RequestParam(required = false) Long teamId,
+            @RequestParam(required = false) Long supervisorId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return stream(adminExportService.teamMembers(teamId, supervisorId), format, gzip);
+    }
+
+    @GetMapping("/reviews")
+    public ResponseEntity<StreamingResponseBody> exportReviews(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer minRating,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        return stream(adminExportService.reviews(from, to, minRating), format, gzip);
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(AdminExportService.ExportQuery query,
+                                                         String formatParam, boolean gzip) {
+        AdminExportService.Format format = AdminExportService.Format.from(formatParam);
+        String filename = query.name() + "-" + LocalDate.now() + "." + format.getExtension() + (gzip ? ".gz" : "");
+        MediaType contentType = MediaType.parseMediaType(gzip ? "application/gzip" : format.getContentType());
+        StreamingResponseBody body = out -> adminExportService.write(query, format, gzip, out);
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
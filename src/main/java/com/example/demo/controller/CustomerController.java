@@ -3,19 +3,28 @@ package com.example.demo.controller;
 import com.example.demo.dto.ProfileUpdateRequest;
 import com.example.demo.dto.ServiceResponse;
 import com.example.demo.dto.UserResponse;
+import com.example.demo.dto.WaitlistEntryResponse;
 import com.example.demo.model.Appointment;
 import com.example.demo.dto.ApiResponse;
+import com.example.demo.dto.AppointmentChangesResponse;
 import com.example.demo.dto.AppointmentDTO;
+import com.example.demo.dto.CustomerAppointmentPageResponse;
+import com.example.demo.service.AppointmentEventLogService;
 import com.example.demo.service.AppointmentService;
-import com.example.demo.service.ServiceManagementService;
+import com.example.demo.service.ServiceCatalogService;
+import com.example.demo.service.ServiceSearchService;
 import com.example.demo.service.UserService;
+import com.example.demo.service.WaitlistService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -27,7 +36,10 @@ public class CustomerController {
 
     private final UserService userService;
     private final AppointmentService appointmentService;
-    private final ServiceManagementService serviceManagementService;
+    private final ServiceCatalogService serviceCatalogService;
+    private final ServiceSearchService serviceSearchService;
+    private final WaitlistService waitlistService;
+    private final AppointmentEventLogService appointmentEventLogService;
 
     @GetMapping("/profile")
     @PreAuthorize("hasRole('CUSTOMER')")
@@ -54,11 +66,29 @@ public class CustomerController {
         return ResponseEntity.ok("Welcome to Customer Dashboard");
     }
 
-    // Get all active services (public access for booking - configured in SecurityConfig)
+    // Get all active services (public access for booking - configured in SecurityConfig).
+    // Served from the in-memory catalog; clients revalidate with If-None-Match and get a 304
     @GetMapping("/services")
-    public ResponseEntity<List<ServiceResponse>> getActiveServices() {
-        List<ServiceResponse> services = serviceManagementService.getAllServices();
-        return ResponseEntity.ok(services);
+    public ResponseEntity<List<ServiceResponse>> getActiveServices(WebRequest webRequest) {
+        ServiceCatalogService.View catalog = serviceCatalogService.getView();
+        if (webRequest.checkNotModified(catalog.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(catalog.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(catalog.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(catalog.services());
+    }
+
+    // Ranked search over active services by name, category, skills and description (public access)
+    @GetMapping("/services/search")
+    public ResponseEntity<List<ServiceResponse>> searchServices(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(serviceSearchService.search(query, limit));
     }
 
     // Create an appointment
@@ -71,13 +101,27 @@ public class CustomerController {
         return ResponseEntity.ok(appointment);
     }
 
-    // Get all appointments for the logged-in customer
+    // Get appointments for the logged-in customer, newest appointment date first
     @GetMapping("/appointments")
     @PreAuthorize("hasRole('CUSTOMER')")
-    public ResponseEntity<List<Appointment>> getCustomerAppointments(Authentication authentication) {
+    public ResponseEntity<CustomerAppointmentPageResponse> getCustomerAppointments(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size,
+            Authentication authentication) {
         String username = authentication.getName();
-        List<Appointment> appointments = appointmentService.getAppointmentsByCustomer(username);
-        return ResponseEntity.ok(appointments);
+        return ResponseEntity.ok(appointmentService.getAppointmentsByCustomer(username, page, size));
+    }
+
+    // Changes to the customer's appointments after a sequence number (incremental sync)
+    @GetMapping("/appointments/changes")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<AppointmentChangesResponse> getAppointmentChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int limit,
+            Authentication authentication) {
+        Long customerId = userService.getUserIdByUsername(authentication.getName());
+        return ResponseEntity.ok(appointmentEventLogService.getChanges(
+                AppointmentEventLogService.Scope.CUSTOMER, customerId, since, limit));
     }
 
     // Get appointment status for a specific appointment (optional)
@@ -124,5 +168,30 @@ public class CustomerController {
         List<String> bookedSlots = appointmentService.getBookedTimeSlots(date);
         return ResponseEntity.ok(bookedSlots);
     }
-}
 
+    // Join the waitlist for a fully booked date, time slot and service
+    @PostMapping("/waitlist")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<WaitlistEntryResponse> joinWaitlist(@RequestBody AppointmentDTO appointmentDTO, Authentication authentication) {
+        String username = authentication.getName();
+        WaitlistEntryResponse entry = waitlistService.join(appointmentDTO, username);
+        return ResponseEntity.ok(entry);
+    }
+
+    // Get the logged-in customer's waitlist entries
+    @GetMapping("/waitlist")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<List<WaitlistEntryResponse>> getWaitlist(Authentication authentication) {
+        String username = authentication.getName();
+        return ResponseEntity.ok(waitlistService.getEntriesForCustomer(username));
+    }
+
+    // Leave the waitlist
+    @DeleteMapping("/waitlist/{entryId}")
+    @PreAuthorize("hasRole('CUSTOMER')")
+    public ResponseEntity<ApiResponse> leaveWaitlist(@PathVariable Long entryId, Authentication authentication) {
+        String username = authentication.getName();
+        waitlistService.leave(entryId, username);
+        return ResponseEntity.ok(ApiResponse.success("Removed from the waitlist"));
+    }
+}
@@ -1,16 +1,23 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.AppointmentStatusUpdateDTO;
+import com.example.demo.event.AppointmentEvent;
+import com.example.demo.exception.ConflictException;
 import com.example.demo.model.Appointment;
 import com.example.demo.model.AppointmentStatus;
 import com.example.demo.model.NotificationType;
 import com.example.demo.model.User;
 import com.example.demo.repository.AppointmentRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.service.AppointmentEventLogService;
+import com.example.demo.service.AppointmentService;
 import com.example.demo.service.NotificationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -26,14 +33,18 @@ import java.util.Map;
 public class EmployeeAppointmentController {
 
     private final AppointmentRepository appointmentRepository;
+    private final AppointmentService appointmentService;
+    private final AppointmentEventLogService appointmentEventLogService;
     private final NotificationService notificationService;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Update appointment status by employee
      * PUT /api/employee/appointments/{id}/status
      *
      * Valid status values: PENDING, CONFIRMED, IN_SERVICE, READY, COMPLETED, CANCELLED
+     * Only transitions allowed by AppointmentStatus are accepted; returns 409 if the status changed concurrently
      */
     @PutMapping("/appointments/{id}/status")
     public ResponseEntity<?> updateAppointmentStatus(
@@ -47,14 +58,12 @@ public class EmployeeAppointmentController {
 
             AppointmentStatus oldStatus = appointment.getStatus();
 
-            // Update status using existing enum
-            if (updateDTO.getStatus() != null) {
-                appointment.setStatus(updateDTO.getStatus());
-            }
+            // Validated compare-and-set update - Customer will see this when they query their appointments
+            Appointment updated = updateDTO.getStatus() != null
+                    ? appointmentService.transitionStatus(appointment, updateDTO.getStatus())
+                    : appointment;
 
-            // Save changes to database - Customer will see this when they query their appointments
-            // updatedAt timestamp will be automatically set by @UpdateTimestamp
-            Appointment updated = appointmentRepository.save(appointment);
+            publishStatusChange(updated, oldStatus);
 
             // Send notifications based on status change
             sendStatusChangeNotifications(updated, oldStatus);
@@ -67,6 +76,11 @@ public class EmployeeAppointmentController {
 
             return ResponseEntity.ok(response);
 
+        } catch (ConflictException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("success", "false");
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("success", "false");
@@ -92,15 +106,15 @@ public class EmployeeAppointmentController {
 
             AppointmentStatus oldStatus = appointment.getStatus();
 
-            // Update status if provided
+            // Update status if provided (validated compare-and-set)
+            Appointment updated = appointment;
             if (updates.containsKey("status")) {
                 String statusStr = updates.get("status");
                 AppointmentStatus status = AppointmentStatus.valueOf(statusStr.toUpperCase());
-                appointment.setStatus(status);
+                updated = appointmentService.transitionStatus(appointment, status);
             }
 
-            // Save to database - updatedAt will be automatically set
-            Appointment updated = appointmentRepository.save(appointment);
+            publishStatusChange(updated, oldStatus);
 
             // Send notifications based on status change
             sendStatusChangeNotifications(updated, oldStatus);
@@ -113,6 +127,11 @@ public class EmployeeAppointmentController {
 
             return ResponseEntity.ok(response);
 
+        } catch (ConflictException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("success", "false");
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
         } catch (IllegalArgumentException e) {
             Map<String, String> error = new HashMap<>();
             error.put("success", "false");
@@ -126,6 +145,21 @@ public class EmployeeAppointmentController {
         }
     }
 
+    /**
+     * Changes to the employee's assigned appointments after a sequence number (incremental sync)
+     * GET /api/employee/appointments/changes?since=0&limit=100
+     */
+    @GetMapping("/appointments/changes")
+    public ResponseEntity<?> getAppointmentChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int limit,
+            Authentication authentication) {
+        Long employeeId = userRepository.findIdByUsername(authentication.getName())
+                .orElseThrow(() -> new RuntimeException("Employee not found"));
+        return ResponseEntity.ok(appointmentEventLogService.getChanges(
+                AppointmentEventLogService.Scope.EMPLOYEE, employeeId, since, limit));
+    }
+
     /**
      * Get appointment details for employee
      * GET /api/employee/appointments/{id}
@@ -145,6 +179,21 @@ public class EmployeeAppointmentController {
         }
     }
 
+    /**
+     * Helper method to publish an AppointmentEvent when the status actually changed
+     */
+    private void publishStatusChange(Appointment appointment, AppointmentStatus oldStatus) {
+        if (oldStatus == appointment.getStatus()) {
+            return;
+        }
+        AppointmentEvent.Type type = appointment.getStatus() == AppointmentStatus.CANCELLED
+                ? AppointmentEvent.Type.CANCELLED
+                : AppointmentEvent.Type.STATUS_CHANGED;
+        eventPublisher.publishEvent(AppointmentEvent.from(type, appointment)
+                .previousStatus(oldStatus)
+                .build());
+    }
+
     /**
      * Helper method to send notifications based on status changes
      */
@@ -1,14 +1,17 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.ReviewDTO;
+import com.example.demo.dto.ReviewPageResponse;
 import com.example.demo.model.Review;
 import com.example.demo.service.ReviewService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -29,6 +32,15 @@ public class ReviewController {
         return ResponseEntity.ok(saved);
     }
     
+    // 🌐 Reviews wall, newest first; pass nextCursorCreatedAt / nextCursorId back for the next page
+    @GetMapping
+    public ResponseEntity<ReviewPageResponse> getReviewPage(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorCreatedAt,
+            @RequestParam(required = false) Long cursorId,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(reviewService.getReviewPage(cursorCreatedAt, cursorId, size));
+    }
+
     // 🌐 Get all reviews (public - all customers can see)
     @GetMapping("/all")
     public ResponseEntity<List<ReviewDTO>> getAllReviews() {
@@ -40,8 +52,7 @@ public class ReviewController {
     @GetMapping("/my-reviews")
     public ResponseEntity<List<ReviewDTO>> getMyReviews() {
         String username = SecurityContextHolder.getContext().getAuthentication().getName();
-        // Get user ID from service and retrieve their reviews
-        return ResponseEntity.ok(reviewService.getAllReviews()); // Will filter in frontend
+        return ResponseEntity.ok(reviewService.getReviewsByUsername(username));
     }
 
     // �🟡 Get review for an appointment
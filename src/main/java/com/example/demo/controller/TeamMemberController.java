@@ -2,17 +2,27 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.ApiResponse;
 import com.example.demo.dto.TeamMemberDTO;
+import com.example.demo.dto.TeamMemberImportResponse;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.service.TeamMemberImportService;
 import com.example.demo.service.TeamMemberService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -26,6 +36,9 @@ public class TeamMemberController {
     @Autowired
     private TeamMemberService teamMemberService;
 
+    @Autowired
+    private TeamMemberImportService teamMemberImportService;
+
     @GetMapping("/allteam")
     public ResponseEntity<ApiResponse<List<TeamMemberDTO>>> getAllTeamMembers() {
         try {
@@ -138,13 +151,17 @@ public class TeamMemberController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<TeamMemberDTO>>> searchTeamMembers(@RequestParam String q) {
+    public ResponseEntity<ApiResponse<List<TeamMemberDTO>>> searchTeamMembers(
+            @RequestParam String q,
+            @RequestParam(required = false) Long supervisorId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
         try {
             if (q == null || q.trim().isEmpty()) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(ApiResponse.error("Search query cannot be empty"));
             }
-            List<TeamMemberDTO> teamMembers = teamMemberService.searchTeamMembers(q.trim());
+            List<TeamMemberDTO> teamMembers = teamMemberService.searchTeamMembers(q.trim(), supervisorId, page, size);
             return ResponseEntity.ok(ApiResponse.success(teamMembers, "Search completed successfully"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -245,6 +262,39 @@ public class TeamMemberController {
         }
     }
 
+    // Bulk onboarding from a CSV upload (multipart "file"); rows that fail are reported by line
+    @PostMapping(value = "/member-import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<TeamMemberImportResponse>> importTeamMembers(@RequestParam("file") MultipartFile file) {
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            return importTeamMembers(reader);
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Could not read CSV file: " + e.getMessage()));
+        }
+    }
+
+    // Same import with the CSV as the request body (Content-Type: text/csv), streamed without a temp file
+    @PostMapping(value = "/member-import", consumes = "text/csv")
+    public ResponseEntity<ApiResponse<TeamMemberImportResponse>> importTeamMembers(HttpServletRequest request) {
+        try (Reader reader = new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8)) {
+            return importTeamMembers(reader);
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Could not read CSV file: " + e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<ApiResponse<TeamMemberImportResponse>> importTeamMembers(Reader reader) throws IOException {
+        try {
+            TeamMemberImportResponse result = teamMemberImportService.importCsv(reader);
+            return ResponseEntity.ok(ApiResponse.success(result,
+                    "Imported " + result.getImported() + " of " + result.getRows() + " team members"));
+        } catch (BadRequestException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<TeamMemberDTO>> updateTeamMember(
             @PathVariable Long id,
@@ -0,0 +1,24 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.AppointmentEventLog;
+import com.example.demo.model.AppointmentSnapshot;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentChangesResponse {
+    // When "since" is older than the retained log, the folded state comes back as snapshots first
+    private List<AppointmentSnapshot> snapshots;
+    private List<AppointmentEventLog> events;
+
+    // Pass as "since" on the next call; hasMore = call again straight away
+    private long nextSince;
+    private boolean hasMore;
+}
@@ -0,0 +1,36 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.AppointmentStatus;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+public class AppointmentSearchRequest {
+
+    // Filters (all optional)
+    private AppointmentStatus status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate fromDate;   // inclusive
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate toDate;     // inclusive
+
+    private String serviceType;
+    private Long employeeId;
+    private String registerNumber;
+    private Long customerId;
+
+    // Keyset cursor: the (appointmentDate, id) of the last row of the previous page
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime cursorDate;
+    private Long cursorId;
+
+    // Sort direction on appointmentDate: "asc" or "desc" (default)
+    private String direction = "desc";
+
+    private Integer size = 50;
+}
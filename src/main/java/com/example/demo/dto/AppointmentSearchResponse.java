@@ -0,0 +1,26 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentSearchResponse {
+    private List<AppointmentAdminResponse> appointments;
+
+    // Cursor for the next page (null when there are no more rows)
+    private boolean hasMore;
+    private LocalDateTime nextCursorDate;
+    private Long nextCursorId;
+
+    // Number of matching rows, counted up to a cap; totalCapped = true means "at least totalCount"
+    private long totalCount;
+    private boolean totalCapped;
+}
@@ -0,0 +1,20 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssignmentProposal {
+    private Long appointmentId;
+    private String serviceType;
+    private Double estimatedHours;
+    private Long employeeId;        // Null when nobody qualified has capacity left
+    private String employeeName;
+    private Double remainingHours;  // Employee's capacity left on the day after this appointment
+    private String message;         // Reason when no employee could be proposed or assigned
+}
@@ -0,0 +1,21 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AutoAssignmentResponse {
+    private LocalDate date;
+    private int requested;
+    private int assigned;
+    private List<AssignmentProposal> assignments;
+    private List<AssignmentProposal> unassigned;
+}
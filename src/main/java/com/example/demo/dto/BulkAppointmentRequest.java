@@ -0,0 +1,28 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.AppointmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkAppointmentRequest {
+
+    public enum Action {
+        APPROVE,     // PENDING -> CONFIRMED
+        REJECT,      // -> CANCELLED
+        ASSIGN,      // assign employeeId, -> IN_SERVICE
+        SET_STATUS   // -> status
+    }
+
+    private List<Long> appointmentIds;
+    private Action action;
+    private Long employeeId;          // Required for ASSIGN
+    private AppointmentStatus status; // Required for SET_STATUS
+}
@@ -0,0 +1,31 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAppointmentResponse {
+    private int requested;
+    private int succeeded;
+    private int failed;
+    private List<ItemResult> results; // One per requested id, in request order
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private Long appointmentId;
+        private boolean success;
+        private String previousStatus;
+        private String status;
+        private String message; // Reason when the item was not updated
+    }
+}
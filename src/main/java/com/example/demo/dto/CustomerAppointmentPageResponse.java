@@ -0,0 +1,21 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerAppointmentPageResponse {
+    private List<CustomerAppointmentSummary> appointments;
+
+    // Page that was returned; request page + 1 while hasMore is true
+    private int page;
+    private int size;
+    private boolean hasMore;
+}
@@ -0,0 +1,37 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.AppointmentStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Customer-facing view of an appointment, selected directly by AppointmentRepository
+ * (field order matches the constructor expression there). Property names match the
+ * Appointment entity so existing clients keep working; the customer's own User is not included.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerAppointmentSummary {
+    private Long id;
+    private String vehicleType;
+    private String vehicleBrand;
+    private String model;
+    private String yearOfManufacture;
+    private String registerNumber;
+    private String fuelType;
+    private String serviceCategory;
+    private String serviceType;
+    private String additionalRequirements;
+    private LocalDateTime appointmentDate;
+    private String timeSlot;
+    private AppointmentStatus status;
+    private Long assignedEmployeeId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
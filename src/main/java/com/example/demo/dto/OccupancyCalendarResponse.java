@@ -0,0 +1,41 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupancyCalendarResponse {
+    private LocalDate from;  // Inclusive
+    private LocalDate to;    // Exclusive
+    private long total;      // Non-cancelled appointments in the range
+    private List<Day> days;  // Only days that have appointments
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Day {
+        private LocalDate date;
+        private long total;  // Non-cancelled appointments on the day
+        private List<Cell> cells;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cell {
+        private String timeSlot;
+        private String serviceType;
+        private String status;
+        private int count;
+    }
+}
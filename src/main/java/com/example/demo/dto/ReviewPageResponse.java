@@ -0,0 +1,22 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewPageResponse {
+    private List<ReviewDTO> reviews;
+
+    // Cursor for the next page (null when there are no more rows)
+    private boolean hasMore;
+    private LocalDateTime nextCursorCreatedAt;
+    private Long nextCursorId;
+}
@@ -1,5 +1,6 @@
 package com.example.demo.dto;
 
+import com.example.demo.model.TeamMember;
 import jakarta.validation.constraints.*;
 import java.time.LocalDate;
 
@@ -75,6 +76,18 @@ public class TeamMemberDTO {
         this.supervisorName = supervisorName;
     }
 
+    // JPQL projection (TeamMemberRepository): enums as stored on the entity, team and supervisor from joins
+    public TeamMemberDTO(Long id, String fullName, String nic, String contactNo,
+                         LocalDate birthDate, Integer age, String address,
+                         TeamMember.District city, TeamMember.Specialization specialization, LocalDate joinedDate,
+                         Short workingHoursPerDay, Long teamId, String teamName,
+                         Long supervisorId, String supervisorName) {
+        this(id, fullName, nic, contactNo, birthDate, age, address,
+                city != null ? city.name() : null, specialization != null ? specialization.name() : null,
+                joinedDate, workingHoursPerDay != null ? workingHoursPerDay.toString() : null,
+                teamId, teamName, supervisorId, supervisorName);
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
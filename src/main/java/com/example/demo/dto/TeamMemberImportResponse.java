@@ -0,0 +1,31 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamMemberImportResponse {
+    private int rows;
+    private int imported;
+    private int failed;
+    private List<RowError> errors; // First failures in file order, at most maxReportedErrors
+    private boolean errorsTruncated;
+    private long elapsedMillis;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int line; // Line in the CSV file, the header being line 1
+        private String nic;
+        private String message;
+    }
+}
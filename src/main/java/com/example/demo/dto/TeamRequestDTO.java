@@ -13,16 +13,6 @@ public class TeamRequestDTO {
     @NotNull(message = "Specialization is required")
     private Specialization specialization;
 
-    @Min(value = 0, message = "Member count cannot be negative")
-    private Integer memberCount;
-
-    @Min(value = 0, message = "Working hours cannot be negative")
-    private Integer totalWorkingHours;
-
-    @Min(value = 18, message = "Average age must be at least 18")
-    @Max(value = 65, message = "Average age cannot exceed 65")
-    private Integer averageAge;
-
     @Size(max = 500, message = "Description cannot exceed 500 characters")
     private String description;
 
@@ -0,0 +1,27 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistEntryResponse {
+    private Long id;
+    private String serviceType;
+    private LocalDateTime appointmentDate;
+    private String timeSlot;
+    private String vehicleBrand;
+    private String model;
+    private String registerNumber;
+    private String status;
+    private Integer position;      // 1 = next in line; null once the entry has left the queue
+    private Long appointmentId;    // The booked appointment after promotion
+    private LocalDateTime createdAt;
+    private LocalDateTime promotedAt;
+}
@@ -0,0 +1,53 @@
+package com.example.demo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkshopSchedulePlan {
+    private LocalDate date;
+    private int appointments;
+    private int scheduled;
+    private int staff;
+    private double utilisation;       // Busy hours / available staff hours, 0-1
+    private int greedyScheduled;      // Scheduled by the greedy pass, before local search
+    private int iterations;
+    private long elapsedMillis;
+    private List<StaffTimeline> timelines;
+    private List<Long> unscheduledAppointmentIds; // Did not fit anyone's working hours
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StaffTimeline {
+        private Long teamMemberId;
+        private String fullName;
+        private String specialization;
+        private LocalTime shiftStart;
+        private LocalTime shiftEnd;
+        private double busyHours;
+        private double utilisation;
+        private List<ScheduledJob> jobs;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ScheduledJob {
+        private Long appointmentId;
+        private String serviceType;
+        private LocalTime start;
+        private LocalTime end;
+    }
+}
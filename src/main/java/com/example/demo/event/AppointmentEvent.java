@@ -0,0 +1,79 @@
+package com.example.demo.event;
+
+import com.example.demo.model.Appointment;
+import com.example.demo.model.AppointmentStatus;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published (synchronously, via ApplicationEventPublisher) after every appointment state change.
+ * The previous* fields describe the appointment before the change; they are null when unchanged.
+ */
+@Getter
+@Builder
+public class AppointmentEvent {
+
+    public enum Type {
+        CREATED,
+        APPROVED,
+        REJECTED,
+        ASSIGNED,
+        STATUS_CHANGED,
+        CANCELLED,
+        RESCHEDULED
+    }
+
+    private final Type type;
+    private final Long appointmentId;
+    private final Long customerId;
+    private final Long employeeId;
+
+    // Current state
+    private final AppointmentStatus status;
+    private final String serviceType;
+    private final LocalDateTime appointmentDate;
+    private final String timeSlot;
+
+    // State before the change
+    private final AppointmentStatus previousStatus;
+    private final String previousServiceType;
+    private final LocalDateTime previousAppointmentDate;
+    private final String previousTimeSlot;
+    private final Long previousEmployeeId;
+
+    private final LocalDateTime occurredAt;
+
+    /**
+     * Builder pre-filled with the current state of the appointment
+     */
+    public static AppointmentEventBuilder from(Type type, Appointment appointment) {
+        return builder()
+                .type(type)
+                .appointmentId(appointment.getId())
+                .customerId(appointment.getUser() != null ? appointment.getUser().getId() : null)
+                .employeeId(appointment.getAssignedEmployeeId())
+                .status(appointment.getStatus())
+                .serviceType(appointment.getServiceType())
+                .appointmentDate(appointment.getAppointmentDate())
+                .timeSlot(appointment.getTimeSlot())
+                .occurredAt(LocalDateTime.now());
+    }
+
+    public AppointmentStatus getPreviousStatusOrCurrent() {
+        return previousStatus != null ? previousStatus : status;
+    }
+
+    public String getPreviousServiceTypeOrCurrent() {
+        return previousServiceType != null ? previousServiceType : serviceType;
+    }
+
+    public LocalDateTime getPreviousAppointmentDateOrCurrent() {
+        return previousAppointmentDate != null ? previousAppointmentDate : appointmentDate;
+    }
+
+    public String getPreviousTimeSlotOrCurrent() {
+        return previousTimeSlot != null ? previousTimeSlot : timeSlot;
+    }
+}
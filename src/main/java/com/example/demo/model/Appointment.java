@@ -12,7 +12,17 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+        // Keyset pagination order for the admin appointment search; also serves the per-day range
+        // predicates (booked slots, per-service counts)
+        @Index(name = "idx_appointments_date_id", columnList = "appointment_date, id"),
+        // Admin search filter combinations (equality column first, then the date range)
+        @Index(name = "idx_appointments_status_date", columnList = "status, appointment_date"),
+        @Index(name = "idx_appointments_employee_date", columnList = "assigned_employee_id, appointment_date"),
+        @Index(name = "idx_appointments_user_date", columnList = "user_id, appointment_date"),
+        @Index(name = "idx_appointments_register_number", columnList = "register_number"),
+        @Index(name = "idx_appointments_service_date", columnList = "service_type, appointment_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,65 @@
+package com.example.demo.model;
+
+import com.example.demo.event.AppointmentEvent;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Append-only log of appointment state changes. The generated id is the global sequence that
+ * clients pass back as "since" to fetch only what changed. Ids are assigned at insert, not at
+ * commit, so readers only get ids below the oldest uncommitted one (see AppointmentEventLogService).
+ */
+@Entity
+@Table(name = "appointment_events", indexes = {
+        @Index(name = "idx_appointment_events_customer_seq", columnList = "customer_id, id"),
+        @Index(name = "idx_appointment_events_employee_seq", columnList = "employee_id, id"),
+        @Index(name = "idx_appointment_events_prev_employee_seq", columnList = "previous_employee_id, id"),
+        @Index(name = "idx_appointment_events_occurred_at", columnList = "occurred_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentEventLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long appointmentId;
+
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column(name = "employee_id")
+    private Long employeeId;
+
+    // Set when the appointment was reassigned away from this employee, so their feed sees it too
+    @Column(name = "previous_employee_id")
+    private Long previousEmployeeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AppointmentEvent.Type type;
+
+    @Enumerated(EnumType.STRING)
+    private AppointmentStatus status;
+
+    @Enumerated(EnumType.STRING)
+    private AppointmentStatus previousStatus;
+
+    private String serviceType;
+
+    private LocalDateTime appointmentDate;
+
+    private String timeSlot;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
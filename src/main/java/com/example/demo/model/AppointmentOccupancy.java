@@ -0,0 +1,46 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Number of appointments per (date, time slot, service type, status). Kept up to date from
+ * appointment events by single-statement increments and decrements; serviceType is "" when the
+ * appointment has none, so the unique constraint also covers those rows.
+ */
+@Entity
+@Table(name = "appointment_occupancy",
+        uniqueConstraints = @UniqueConstraint(name = "uk_appointment_occupancy_cell",
+                columnNames = {"occupancy_date", "time_slot", "service_type", "status"}),
+        indexes = @Index(name = "idx_appointment_occupancy_date", columnList = "occupancy_date"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentOccupancy {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "occupancy_date", nullable = false)
+    private LocalDate occupancyDate;
+
+    @Column(name = "time_slot", nullable = false)
+    private String timeSlot;
+
+    @Column(name = "service_type", nullable = false)
+    private String serviceType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private AppointmentStatus status;
+
+    @Column(name = "appointment_count", nullable = false)
+    private Integer appointmentCount;
+}
@@ -0,0 +1,53 @@
+package com.example.demo.model;
+
+import com.example.demo.event.AppointmentEvent;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Latest state of an appointment as of the newest event folded out of the event log.
+ * lastSequence is the id of that event, so snapshots sort into the same sequence as the log.
+ */
+@Entity
+@Table(name = "appointment_snapshots", indexes = {
+        @Index(name = "idx_appointment_snapshots_customer_seq", columnList = "customer_id, last_sequence"),
+        @Index(name = "idx_appointment_snapshots_employee_seq", columnList = "employee_id, last_sequence"),
+        @Index(name = "idx_appointment_snapshots_seq", columnList = "last_sequence")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AppointmentSnapshot {
+
+    @Id
+    private Long appointmentId;
+
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column(name = "employee_id")
+    private Long employeeId;
+
+    @Enumerated(EnumType.STRING)
+    private AppointmentEvent.Type lastEventType;
+
+    @Enumerated(EnumType.STRING)
+    private AppointmentStatus status;
+
+    private String serviceType;
+
+    private LocalDateTime appointmentDate;
+
+    private String timeSlot;
+
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence;
+
+    private LocalDateTime occurredAt;
+}
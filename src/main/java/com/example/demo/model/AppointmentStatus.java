@@ -1,5 +1,10 @@
 package com.example.demo.model;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
 
 public enum AppointmentStatus {
     PENDING,      // Appointment is created, but not yet approved by admin
@@ -7,5 +12,30 @@ public enum AppointmentStatus {
     IN_SERVICE,   // Appointment is being serviced (formerly IN_PROGRESS)
     READY,        // Service completed, ready for pickup
     COMPLETED,    // Appointment has been completed and customer picked up
-    CANCELLED     // Appointment was rejected or cancelled
+    CANCELLED;    // Appointment was rejected or cancelled
+
+    // Allowed status changes; COMPLETED and CANCELLED are final
+    private static final Map<AppointmentStatus, Set<AppointmentStatus>> TRANSITIONS = new EnumMap<>(AppointmentStatus.class);
+
+    static {
+        TRANSITIONS.put(PENDING, EnumSet.of(CONFIRMED, IN_SERVICE, CANCELLED));
+        TRANSITIONS.put(CONFIRMED, EnumSet.of(IN_SERVICE, CANCELLED));
+        TRANSITIONS.put(IN_SERVICE, EnumSet.of(READY, CANCELLED));
+        TRANSITIONS.put(READY, EnumSet.of(IN_SERVICE, COMPLETED));
+        TRANSITIONS.put(COMPLETED, EnumSet.noneOf(AppointmentStatus.class));
+        TRANSITIONS.put(CANCELLED, EnumSet.noneOf(AppointmentStatus.class));
+    }
+
+    // Whether an appointment in this status still occupies its booked time slot
+    public boolean holdsSlot() {
+        return this != CANCELLED;
+    }
+
+    public boolean canTransitionTo(AppointmentStatus next) {
+        return TRANSITIONS.get(this).contains(next);
+    }
+
+    public Set<AppointmentStatus> allowedTransitions() {
+        return Collections.unmodifiableSet(TRANSITIONS.get(this));
+    }
 }
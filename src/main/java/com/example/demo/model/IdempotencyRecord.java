@@ -0,0 +1,60 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored outcome of a POST made with an Idempotency-Key header. A row is IN_PROGRESS while the
+ * first request runs and COMPLETED with the response once it finishes; rows expire after a TTL.
+ * An IN_PROGRESS row is a lease: if it is not completed in time (the server died mid-request)
+ * the next request with the key takes it over.
+ */
+@Entity
+@Table(name = "idempotency_records",
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_records_key", columnNames = "scoped_key"),
+        indexes = @Index(name = "idx_idempotency_records_expires_at", columnList = "expires_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+
+    public enum State { IN_PROGRESS, COMPLETED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // "<username>:<Idempotency-Key>" so keys from different users never collide
+    @Column(name = "scoped_key", nullable = false, length = 400)
+    private String scopedKey;
+
+    // SHA-256 of method, path and body; a reused key with a different request is rejected
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private State state;
+
+    private Integer responseStatus;
+
+    private String contentType;
+
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // When the request currently holding the key started (createdAt for rows written before this column)
+    private LocalDateTime startedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
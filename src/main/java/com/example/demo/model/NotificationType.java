@@ -9,6 +9,8 @@ public enum NotificationType {
     STATUS_CHANGED_IN_SERVICE,  // When status changes to IN_SERVICE
     STATUS_CHANGED_READY,       // When status changes to READY
     STATUS_CHANGED_COMPLETED,   // When status changes to COMPLETED
+    WAITLIST_PROMOTED,          // When a waitlisted customer is booked into a freed slot
+    APPOINTMENT_REMINDER,       // Reminder before an upcoming appointment or at shift start
     GENERAL                     // General notification
 }
 
@@ -5,7 +5,11 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        // Keyset pagination order for the reviews wall (newest first)
+        @Index(name = "idx_reviews_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_reviews_user_created", columnList = "user_id, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -48,7 +48,7 @@ public class Service {
 
     @Builder.Default
     @Column(nullable = false)
-    private Integer availableSlots = 0; // Tracks remaining slots for today
+    private Integer availableSlots = 0; // Legacy column; daily capacity is tracked in ServiceDailyCapacity
 
     private String serviceImage;
 
@@ -0,0 +1,40 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Booking ledger for one service on one day. usedSlots is only ever changed by single
+ * conditional UPDATE statements, so concurrent bookings cannot exceed maxSlots.
+ */
+@Entity
+@Table(name = "service_daily_capacity",
+        uniqueConstraints = @UniqueConstraint(name = "uk_service_daily_capacity_service_date",
+                columnNames = {"service_id", "slot_date"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ServiceDailyCapacity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "service_id", nullable = false)
+    private Long serviceId;
+
+    @Column(name = "slot_date", nullable = false)
+    private LocalDate slotDate;
+
+    @Column(nullable = false)
+    private Integer usedSlots;
+
+    @Column(nullable = false)
+    private Integer maxSlots;
+}
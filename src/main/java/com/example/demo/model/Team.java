@@ -2,11 +2,13 @@ package com.example.demo.model;
 
 import lombok.Data;
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "teams")
 @Data
+@DynamicUpdate // Edits to the team never write the member aggregates, which are updated in place
 public class Team {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -19,6 +21,7 @@ public class Team {
     @Column(nullable = false)
     private Specialization specialization;
 
+    // Member aggregates, maintained from team_members by TeamService (see TeamRepository.applyMemberDelta)
     @Column(name = "member_count")
     private Integer memberCount;
 
@@ -28,6 +31,9 @@ public class Team {
     @Column(name = "average_age")
     private Integer averageAge;
 
+    @Column(name = "age_sum")
+    private Integer ageSum;
+
     @Column(length = 500)
     private String description;
 
@@ -9,7 +9,11 @@ import java.time.LocalDateTime;
 
 @Getter
 @Entity
-@Table(name = "team_members")
+@Table(name = "team_members", indexes = {
+        @Index(name = "idx_team_members_team_id", columnList = "team_id"),
+        @Index(name = "idx_team_members_birth_date", columnList = "birth_date"),
+        @Index(name = "idx_team_members_working_hours", columnList = "working_hours_per_day")
+})
 public class TeamMember {
 
     // Getters and Setters
@@ -58,8 +62,8 @@ public class TeamMember {
     @Column(name = "joined_date", nullable = false)
     private LocalDate joinedDate;
 
-    @Column(name = "working_hours_per_day", nullable = false, length = 2)
-    private String workingHoursPerDay; // Store "4", "6", "8", etc.
+    @Column(name = "working_hours_per_day", nullable = false)
+    private Short workingHoursPerDay; // smallint: 4, 6, 8, 10 or 12 (the DTO keeps the "8" string form)
 
     // Foreign key relationship with Team table
     @ManyToOne(fetch = FetchType.LAZY)
@@ -135,7 +139,7 @@ public class TeamMember {
 
     public void setJoinedDate(LocalDate joinedDate) { this.joinedDate = joinedDate; }
 
-    public void setWorkingHoursPerDay(String workingHoursPerDay) { this.workingHoursPerDay = workingHoursPerDay; }
+    public void setWorkingHoursPerDay(Short workingHoursPerDay) { this.workingHoursPerDay = workingHoursPerDay; }
 
     public void setTeam(Team team) { this.team = team; }
 
@@ -0,0 +1,70 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A customer waiting for a fully booked (date, time slot, service). Holds everything needed to
+ * create the appointment when the entry is promoted.
+ */
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+        @Index(name = "idx_waitlist_status_date", columnList = "status, slot_date, id"),
+        @Index(name = "idx_waitlist_user", columnList = "user_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "slot_date", nullable = false)
+    private LocalDate slotDate;
+
+    @Column(nullable = false)
+    private LocalDateTime appointmentDate;
+
+    @Column(nullable = false)
+    private String timeSlot;
+
+    @Column(nullable = false)
+    private String serviceType;
+
+    private String serviceCategory;
+
+    // Vehicle details copied from the booking request
+    private String vehicleType;
+    private String vehicleBrand;
+    private String model;
+    private String yearOfManufacture;
+    private String registerNumber;
+    private String fuelType;
+    private String additionalRequirements;
+
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    @Column(nullable = false)
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+
+    private Long appointmentId; // Set when the entry is promoted
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime promotedAt;
+}
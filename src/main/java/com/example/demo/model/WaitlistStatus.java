@@ -0,0 +1,9 @@
+package com.example.demo.model;
+
+public enum WaitlistStatus {
+    WAITING,    // In the queue for the slot
+    PROMOTED,   // Booked automatically when the slot freed up
+    CANCELLED,  // Removed by the customer
+    EXPIRED,    // The day passed without a free slot
+    FAILED      // Booking was rejected for a reason other than the slot being taken; removed from the queue
+}
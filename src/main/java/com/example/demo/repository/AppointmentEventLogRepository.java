@@ -0,0 +1,57 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.AppointmentEventLog;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AppointmentEventLogRepository extends JpaRepository<AppointmentEventLog, Long> {
+
+    // Events in (since, before), oldest first, per scope; "before" holds back ids whose transaction may still commit
+    @Query("SELECT e FROM AppointmentEventLog e WHERE e.customerId = :customerId " +
+           "AND e.id > :since AND e.id < :before ORDER BY e.id")
+    List<AppointmentEventLog> findCustomerEventsBetween(@Param("customerId") Long customerId,
+                                                        @Param("since") Long since,
+                                                        @Param("before") Long before,
+                                                        Pageable pageable);
+
+    // Includes appointments reassigned away from the employee
+    @Query("SELECT e FROM AppointmentEventLog e WHERE (e.employeeId = :employeeId OR e.previousEmployeeId = :employeeId) " +
+           "AND e.id > :since AND e.id < :before ORDER BY e.id")
+    List<AppointmentEventLog> findEmployeeEventsBetween(@Param("employeeId") Long employeeId,
+                                                        @Param("since") Long since,
+                                                        @Param("before") Long before,
+                                                        Pageable pageable);
+
+    @Query("SELECT e FROM AppointmentEventLog e WHERE e.id > :since AND e.id < :before ORDER BY e.id")
+    List<AppointmentEventLog> findEventsBetween(@Param("since") Long since,
+                                                @Param("before") Long before,
+                                                Pageable pageable);
+
+    @Query("SELECT MAX(e.id) FROM AppointmentEventLog e")
+    Long findMaxId();
+
+    // Retention: newest event id older than the cutoff
+    @Query("SELECT MAX(e.id) FROM AppointmentEventLog e WHERE e.occurredAt < :cutoff")
+    Long findMaxIdOccurredBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    // Latest event per appointment within (fromId, toId]
+    @Query("SELECT e FROM AppointmentEventLog e WHERE e.id IN (" +
+           "SELECT MAX(e2.id) FROM AppointmentEventLog e2 WHERE e2.id > :fromId AND e2.id <= :toId " +
+           "GROUP BY e2.appointmentId)")
+    List<AppointmentEventLog> findLatestPerAppointmentBetween(@Param("fromId") Long fromId,
+                                                              @Param("toId") Long toId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AppointmentEventLog e WHERE e.id > :fromId AND e.id <= :toId")
+    int deleteBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+}
@@ -0,0 +1,42 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.AppointmentOccupancy;
+import com.example.demo.model.AppointmentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface AppointmentOccupancyRepository extends JpaRepository<AppointmentOccupancy, Long> {
+
+    @Query("SELECT o FROM AppointmentOccupancy o WHERE o.occupancyDate >= :start AND o.occupancyDate < :end " +
+           "AND o.appointmentCount > 0 ORDER BY o.occupancyDate, o.timeSlot, o.serviceType, o.status")
+    List<AppointmentOccupancy> findBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // Add to a cell; returns 0 when the cell has no row yet
+    @Transactional
+    @Modifying
+    @Query("UPDATE AppointmentOccupancy o SET o.appointmentCount = o.appointmentCount + 1 " +
+           "WHERE o.occupancyDate = :date AND o.timeSlot = :timeSlot AND o.serviceType = :serviceType " +
+           "AND o.status = :status")
+    int increment(@Param("date") LocalDate date,
+                  @Param("timeSlot") String timeSlot,
+                  @Param("serviceType") String serviceType,
+                  @Param("status") AppointmentStatus status);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE AppointmentOccupancy o SET o.appointmentCount = o.appointmentCount - 1 " +
+           "WHERE o.occupancyDate = :date AND o.timeSlot = :timeSlot AND o.serviceType = :serviceType " +
+           "AND o.status = :status AND o.appointmentCount > 0")
+    int decrement(@Param("date") LocalDate date,
+                  @Param("timeSlot") String timeSlot,
+                  @Param("serviceType") String serviceType,
+                  @Param("status") AppointmentStatus status);
+}
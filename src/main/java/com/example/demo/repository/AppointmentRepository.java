@@ -1,12 +1,22 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.CustomerAppointmentSummary;
 import com.example.demo.model.Appointment;
+import com.example.demo.model.AppointmentStatus;
 import com.example.demo.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,18 +25,213 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
     // Custom method to find appointments by user (CUSTOMER)
     List<Appointment> findByUser(Optional<User> user);
 
+    // Customer appointment list: only the columns the customer view needs, no User join
+    @Query("SELECT new com.example.demo.dto.CustomerAppointmentSummary(" +
+           "a.id, a.vehicleType, a.vehicleBrand, a.model, a.yearOfManufacture, a.registerNumber, a.fuelType, " +
+           "a.serviceCategory, a.serviceType, a.additionalRequirements, a.appointmentDate, a.timeSlot, a.status, " +
+           "a.assignedEmployeeId, a.createdAt, a.updatedAt) " +
+           "FROM Appointment a WHERE a.user.id = :userId")
+    Slice<CustomerAppointmentSummary> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
     // Find appointments assigned to a specific employee
     List<Appointment> findByAssignedEmployeeId(Long employeeId);
 
-    // Count appointments for a specific service on a given date (excluding cancelled/rejected)
+    // Id, employee and service of each assigned appointment in a date range (employee workload)
+    @Query("SELECT a.id, a.assignedEmployeeId, a.serviceType FROM Appointment a " +
+           "WHERE a.appointmentDate >= :start AND a.appointmentDate < :end " +
+           "AND a.assignedEmployeeId IS NOT NULL AND a.status <> 'CANCELLED'")
+    List<Object[]> findAssignmentsBetween(@Param("start") LocalDateTime start,
+                                          @Param("end") LocalDateTime end);
+
+    // Appointments in a status that nobody has been assigned to yet, in a date range
+    @Query("SELECT a FROM Appointment a WHERE a.appointmentDate >= :start AND a.appointmentDate < :end " +
+           "AND a.status = :status AND a.assignedEmployeeId IS NULL ORDER BY a.appointmentDate, a.id")
+    List<Appointment> findUnassignedBetween(@Param("start") LocalDateTime start,
+                                            @Param("end") LocalDateTime end,
+                                            @Param("status") AppointmentStatus status);
+
+    // Date filters use half-open ranges [start of day, start of next day) so the
+    // (appointment_date, status) and (service_type, appointment_date) indexes apply;
+    // CAST(a.appointmentDate AS date) = :date forces a full table scan.
+
+    // Count appointments for a specific service in a date range (excluding cancelled/rejected)
     @Query("SELECT COUNT(a) FROM Appointment a WHERE a.serviceType = :serviceType " +
-           "AND CAST(a.appointmentDate AS date) = :date " +
+           "AND a.appointmentDate >= :start AND a.appointmentDate < :end " +
            "AND a.status NOT IN ('CANCELLED', 'REJECTED')")
-    Long countAppointmentsByServiceAndDate(@Param("serviceType") String serviceType, 
-                                           @Param("date") LocalDate date);
+    Long countAppointmentsByServiceBetween(@Param("serviceType") String serviceType,
+                                           @Param("start") LocalDateTime start,
+                                           @Param("end") LocalDateTime end);
 
-    // Get all booked time slots for a specific date (excluding cancelled/rejected)
-    @Query("SELECT a.timeSlot FROM Appointment a WHERE CAST(a.appointmentDate AS date) = :date " +
+    // Count appointments for a specific service on a given date (excluding cancelled/rejected)
+    default Long countAppointmentsByServiceAndDate(String serviceType, LocalDate date) {
+        return countAppointmentsByServiceBetween(serviceType, date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    // Count appointments per service in a date range in one grouped query (excluding cancelled/rejected)
+    @Query("SELECT a.serviceType, COUNT(a) FROM Appointment a " +
+           "WHERE a.appointmentDate >= :start AND a.appointmentDate < :end " +
+           "AND a.status NOT IN ('CANCELLED', 'REJECTED') GROUP BY a.serviceType")
+    List<Object[]> countAppointmentsPerServiceBetween(@Param("start") LocalDateTime start,
+                                                      @Param("end") LocalDateTime end);
+
+    default List<Object[]> countAppointmentsPerServiceByDate(LocalDate date) {
+        return countAppointmentsPerServiceBetween(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    // Get all booked time slots in a date range (excluding cancelled/rejected)
+    @Query("SELECT a.timeSlot FROM Appointment a " +
+           "WHERE a.appointmentDate >= :start AND a.appointmentDate < :end " +
            "AND a.status NOT IN ('CANCELLED', 'REJECTED')")
-    List<String> findBookedTimeSlotsByDate(@Param("date") LocalDate date);
+    List<String> findBookedTimeSlotsBetween(@Param("start") LocalDateTime start,
+                                            @Param("end") LocalDateTime end);
+
+    // Get all booked time slots for a specific date (excluding cancelled/rejected)
+    default List<String> findBookedTimeSlotsByDate(LocalDate date) {
+        return findBookedTimeSlotsBetween(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    // === Admin Search ===
+    // Optional filters shared by the search and capped count queries
+    String SEARCH_FILTERS =
+            "(:status IS NULL OR a.status = :status) AND " +
+            "(:fromDate IS NULL OR a.appointmentDate >= :fromDate) AND " +
+            "(:toDate IS NULL OR a.appointmentDate < :toDate) AND " +
+            "(:serviceType IS NULL OR a.serviceType = :serviceType) AND " +
+            "(:employeeId IS NULL OR a.assignedEmployeeId = :employeeId) AND " +
+            "(:registerNumber IS NULL OR a.registerNumber = :registerNumber) AND " +
+            "(:customerId IS NULL OR a.user.id = :customerId)";
+
+    // Keyset page in ascending (appointmentDate, id) order, starting after the cursor
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.user WHERE " + SEARCH_FILTERS + " AND " +
+           "(:cursorDate IS NULL OR a.appointmentDate > :cursorDate OR " +
+           "(a.appointmentDate = :cursorDate AND a.id > :cursorId)) " +
+           "ORDER BY a.appointmentDate ASC, a.id ASC")
+    List<Appointment> searchAscending(@Param("status") AppointmentStatus status,
+                                      @Param("fromDate") LocalDateTime fromDate,
+                                      @Param("toDate") LocalDateTime toDate,
+                                      @Param("serviceType") String serviceType,
+                                      @Param("employeeId") Long employeeId,
+                                      @Param("registerNumber") String registerNumber,
+                                      @Param("customerId") Long customerId,
+                                      @Param("cursorDate") LocalDateTime cursorDate,
+                                      @Param("cursorId") Long cursorId,
+                                      Pageable pageable);
+
+    // Keyset page in descending (appointmentDate, id) order, starting before the cursor
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.user WHERE " + SEARCH_FILTERS + " AND " +
+           "(:cursorDate IS NULL OR a.appointmentDate < :cursorDate OR " +
+           "(a.appointmentDate = :cursorDate AND a.id < :cursorId)) " +
+           "ORDER BY a.appointmentDate DESC, a.id DESC")
+    List<Appointment> searchDescending(@Param("status") AppointmentStatus status,
+                                       @Param("fromDate") LocalDateTime fromDate,
+                                       @Param("toDate") LocalDateTime toDate,
+                                       @Param("serviceType") String serviceType,
+                                       @Param("employeeId") Long employeeId,
+                                       @Param("registerNumber") String registerNumber,
+                                       @Param("customerId") Long customerId,
+                                       @Param("cursorDate") LocalDateTime cursorDate,
+                                       @Param("cursorId") Long cursorId,
+                                       Pageable pageable);
+
+    // Matching ids, limited by the pageable; used to count matches up to a cap instead of a full COUNT(*)
+    @Query("SELECT a.id FROM Appointment a WHERE " + SEARCH_FILTERS)
+    List<Long> findSearchIds(@Param("status") AppointmentStatus status,
+                             @Param("fromDate") LocalDateTime fromDate,
+                             @Param("toDate") LocalDateTime toDate,
+                             @Param("serviceType") String serviceType,
+                             @Param("employeeId") Long employeeId,
+                             @Param("registerNumber") String registerNumber,
+                             @Param("customerId") Long customerId,
+                             Pageable pageable);
+
+    // Move an appointment to a new date/slot/service without touching its status; only applies while
+    // the status is still one of the editable ones. Clears the persistence context so the caller's
+    // copy of the entity cannot be flushed over a concurrent status change.
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Appointment a SET a.appointmentDate = :appointmentDate, a.timeSlot = :timeSlot, " +
+           "a.serviceCategory = :serviceCategory, a.serviceType = :serviceType, " +
+           "a.additionalRequirements = :additionalRequirements, a.updatedAt = :now " +
+           "WHERE a.id = :id AND a.status IN :editable")
+    int reschedule(@Param("id") Long id,
+                   @Param("appointmentDate") LocalDateTime appointmentDate,
+                   @Param("timeSlot") String timeSlot,
+                   @Param("serviceCategory") String serviceCategory,
+                   @Param("serviceType") String serviceType,
+                   @Param("additionalRequirements") String additionalRequirements,
+                   @Param("editable") Collection<AppointmentStatus> editable,
+                   @Param("now") LocalDateTime now);
+
+    // Compare-and-set status change: only applies if the row is still in the expected status.
+    // Returns the number of rows updated (0 = the appointment has moved on or does not exist).
+    @Transactional
+    @Modifying
+    @Query("UPDATE Appointment a SET a.status = :next, a.updatedAt = :now " +
+           "WHERE a.id = :id AND a.status = :expected")
+    int compareAndSetStatus(@Param("id") Long id,
+                            @Param("expected") AppointmentStatus expected,
+                            @Param("next") AppointmentStatus next,
+                            @Param("now") LocalDateTime now);
+
+    // Same as compareAndSetStatus, also setting the assigned employee
+    @Transactional
+    @Modifying
+    @Query("UPDATE Appointment a SET a.status = :next, a.assignedEmployeeId = :employeeId, a.updatedAt = :now " +
+           "WHERE a.id = :id AND a.status = :expected")
+    int compareAndSetAssignment(@Param("id") Long id,
+                                @Param("expected") AppointmentStatus expected,
+                                @Param("next") AppointmentStatus next,
+                                @Param("employeeId") Long employeeId,
+                                @Param("now") LocalDateTime now);
+
+    // Change only the assignee, if status and assignee are still what the caller read
+    @Transactional
+    @Modifying
+    @Query("UPDATE Appointment a SET a.assignedEmployeeId = :employeeId, a.updatedAt = :now " +
+           "WHERE a.id = :id AND a.status = :status AND (a.assignedEmployeeId = :expectedEmployeeId " +
+           "OR (a.assignedEmployeeId IS NULL AND :expectedEmployeeId IS NULL))")
+    int compareAndSetAssignee(@Param("id") Long id,
+                              @Param("status") AppointmentStatus status,
+                              @Param("expectedEmployeeId") Long expectedEmployeeId,
+                              @Param("employeeId") Long employeeId,
+                              @Param("now") LocalDateTime now);
+
+    // Bulk operations: rows are locked (SELECT ... FOR UPDATE) before one UPDATE per (expected status) group
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Appointment a WHERE a.id IN :ids ORDER BY a.id")
+    List<Appointment> lockAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.user WHERE a.id IN :ids")
+    List<Appointment> findAllWithUserByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Appointment a SET a.status = :next, a.updatedAt = :now " +
+           "WHERE a.id IN :ids AND a.status = :expected")
+    int bulkCompareAndSetStatus(@Param("ids") Collection<Long> ids,
+                                @Param("expected") AppointmentStatus expected,
+                                @Param("next") AppointmentStatus next,
+                                @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Appointment a SET a.status = :next, a.assignedEmployeeId = :employeeId, a.updatedAt = :now " +
+           "WHERE a.id IN :ids AND a.status = :expected")
+    int bulkCompareAndSetAssignment(@Param("ids") Collection<Long> ids,
+                                    @Param("expected") AppointmentStatus expected,
+                                    @Param("next") AppointmentStatus next,
+                                    @Param("employeeId") Long employeeId,
+                                    @Param("now") LocalDateTime now);
+
+    // Appointment counts per (appointmentDate, timeSlot, serviceType, status), for rebuilding the occupancy summary
+    @Query("SELECT a.appointmentDate, a.timeSlot, a.serviceType, a.status, COUNT(a) FROM Appointment a " +
+           "GROUP BY a.appointmentDate, a.timeSlot, a.serviceType, a.status")
+    List<Object[]> countPerDateSlotServiceAndStatus();
+
+    // Upcoming appointments in a date range, with the customer, for reminder scheduling
+    @Query("SELECT a FROM Appointment a JOIN FETCH a.user " +
+           "WHERE a.appointmentDate >= :start AND a.appointmentDate < :end AND a.status IN :statuses")
+    List<Appointment> findWithUserBetween(@Param("start") LocalDateTime start,
+                                          @Param("end") LocalDateTime end,
+                                          @Param("statuses") Collection<AppointmentStatus> statuses);
 }
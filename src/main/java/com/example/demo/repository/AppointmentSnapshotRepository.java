@@ -0,0 +1,34 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.AppointmentSnapshot;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AppointmentSnapshotRepository extends JpaRepository<AppointmentSnapshot, Long> {
+
+    // Highest event sequence that has been folded into snapshots
+    @Query("SELECT MAX(s.lastSequence) FROM AppointmentSnapshot s")
+    Long findFoldedThrough();
+
+    // Snapshots changed after a sequence number, per scope
+    @Query("SELECT s FROM AppointmentSnapshot s WHERE s.customerId = :customerId AND s.lastSequence > :since " +
+           "ORDER BY s.lastSequence")
+    List<AppointmentSnapshot> findCustomerSnapshotsAfter(@Param("customerId") Long customerId,
+                                                         @Param("since") Long since,
+                                                         Pageable pageable);
+
+    @Query("SELECT s FROM AppointmentSnapshot s WHERE s.employeeId = :employeeId AND s.lastSequence > :since " +
+           "ORDER BY s.lastSequence")
+    List<AppointmentSnapshot> findEmployeeSnapshotsAfter(@Param("employeeId") Long employeeId,
+                                                         @Param("since") Long since,
+                                                         Pageable pageable);
+
+    @Query("SELECT s FROM AppointmentSnapshot s WHERE s.lastSequence > :since ORDER BY s.lastSequence")
+    List<AppointmentSnapshot> findSnapshotsAfter(@Param("since") Long since, Pageable pageable);
+}
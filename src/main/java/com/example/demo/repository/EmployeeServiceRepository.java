@@ -2,6 +2,7 @@ package com.example.demo.repository;
 
 import com.example.demo.model.EmployeeService;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,5 +14,10 @@ public interface EmployeeServiceRepository extends JpaRepository<EmployeeService
     List<EmployeeService> findByServiceId(Long serviceId);
     Optional<EmployeeService> findByEmployeeIdAndServiceId(Long employeeId, Long serviceId);
     boolean existsByEmployeeIdAndServiceId(Long employeeId, Long serviceId);
+
+    // (employeeId, firstName, lastName, serviceName) for every skill of an active employee
+    @Query("SELECT e.id, e.firstName, e.lastName, s.serviceName FROM EmployeeService es " +
+           "JOIN es.employee e JOIN es.service s WHERE e.isActive = true")
+    List<Object[]> findActiveEmployeeSkills();
 }
 
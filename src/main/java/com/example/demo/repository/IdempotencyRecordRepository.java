@@ -0,0 +1,38 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByScopedKey(String scopedKey);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.scopedKey = :scopedKey")
+    int deleteByScopedKey(@Param("scopedKey") String scopedKey);
+
+    // Take over an IN_PROGRESS claim whose lease ran out; returns 1 if this caller now holds the key
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.startedAt = :now " +
+           "WHERE r.scopedKey = :scopedKey AND r.state = com.example.demo.model.IdempotencyRecord.State.IN_PROGRESS " +
+           "AND COALESCE(r.startedAt, r.createdAt) < :staleBefore")
+    int takeOverStale(@Param("scopedKey") String scopedKey,
+                      @Param("now") LocalDateTime now,
+                      @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,9 +1,13 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.ReviewDTO;
 import com.example.demo.model.Review;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,8 +15,24 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     Optional<Review> findByAppointmentId(Long appointmentId);
     
     List<Review> findByUserId(Long userId);
-    
-    @Query("SELECT r FROM Review r ORDER BY r.createdAt DESC")
-    List<Review> findAllOrderByCreatedAtDesc();
-}
 
+    // DTO projection with the reviewer's username joined in, so a list of reviews is a single query
+    String DTO_PROJECTION = "SELECT new com.example.demo.dto.ReviewDTO(r.id, r.rating, r.comment, r.appointmentId, " +
+            "COALESCE(u.username, 'Anonymous'), r.createdAt, r.updatedAt) " +
+            "FROM Review r LEFT JOIN User u ON u.id = r.userId ";
+
+    @Query(DTO_PROJECTION + "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewDTO> findAllDtosOrderByCreatedAtDesc();
+
+    // Keyset page, newest first, starting after the cursor (idx_reviews_created_id)
+    @Query(DTO_PROJECTION + "WHERE (:cursorCreatedAt IS NULL OR r.createdAt < :cursorCreatedAt OR " +
+           "(r.createdAt = :cursorCreatedAt AND r.id < :cursorId)) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewDTO> findDtoPageOrderByCreatedAtDesc(@Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                                    @Param("cursorId") Long cursorId,
+                                                    Pageable pageable);
+
+    // One user's reviews, newest first (idx_reviews_user_created)
+    @Query(DTO_PROJECTION + "WHERE r.userId = :userId ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewDTO> findDtosByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,55 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.ServiceDailyCapacity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface ServiceDailyCapacityRepository extends JpaRepository<ServiceDailyCapacity, Long> {
+
+    boolean existsByServiceIdAndSlotDate(Long serviceId, LocalDate slotDate);
+
+    Optional<ServiceDailyCapacity> findByServiceIdAndSlotDate(Long serviceId, LocalDate slotDate);
+
+    // Claim one slot if any are left; returns the number of rows updated (0 = full or no ledger row yet)
+    @Transactional
+    @Modifying
+    @Query("UPDATE ServiceDailyCapacity c SET c.usedSlots = c.usedSlots + 1 " +
+           "WHERE c.serviceId = :serviceId AND c.slotDate = :slotDate AND c.usedSlots < c.maxSlots")
+    int tryIncrement(@Param("serviceId") Long serviceId, @Param("slotDate") LocalDate slotDate);
+
+    // Take a slot regardless of the limit (an appointment was reinstated)
+    @Transactional
+    @Modifying
+    @Query("UPDATE ServiceDailyCapacity c SET c.usedSlots = c.usedSlots + 1 " +
+           "WHERE c.serviceId = :serviceId AND c.slotDate = :slotDate")
+    int forceIncrement(@Param("serviceId") Long serviceId, @Param("slotDate") LocalDate slotDate);
+
+    // Give a slot back
+    @Transactional
+    @Modifying
+    @Query("UPDATE ServiceDailyCapacity c SET c.usedSlots = c.usedSlots - 1 " +
+           "WHERE c.serviceId = :serviceId AND c.slotDate = :slotDate AND c.usedSlots > 0")
+    int decrement(@Param("serviceId") Long serviceId, @Param("slotDate") LocalDate slotDate);
+
+    // Apply a changed daily limit to today and future days
+    @Transactional
+    @Modifying
+    @Query("UPDATE ServiceDailyCapacity c SET c.maxSlots = :maxSlots " +
+           "WHERE c.serviceId = :serviceId AND c.slotDate >= :fromDate")
+    int updateMaxSlotsFrom(@Param("serviceId") Long serviceId,
+                           @Param("maxSlots") int maxSlots,
+                           @Param("fromDate") LocalDate fromDate);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ServiceDailyCapacity c WHERE c.serviceId = :serviceId")
+    int deleteByServiceId(@Param("serviceId") Long serviceId);
+}
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ServiceRepository extends JpaRepository<Service, Long> {
@@ -14,4 +15,7 @@ public interface ServiceRepository extends JpaRepository<Service, Long> {
     List<Service> findByCategory(String category);
     
     List<Service> findByServiceNameContainingIgnoreCase(String serviceName);
+
+    // Appointments reference services by name (Appointment.serviceType)
+    Optional<Service> findFirstByServiceName(String serviceName);
 }
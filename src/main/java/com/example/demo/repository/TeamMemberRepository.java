@@ -1,5 +1,6 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.TeamMemberDTO;
 import com.example.demo.model.TeamMember;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -7,15 +8,31 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TeamMemberRepository extends JpaRepository<TeamMember, Long> {
 
+    // DTO projection with team and supervisor names joined in, so listing members is a single query
+    String DTO_PROJECTION = "SELECT new com.example.demo.dto.TeamMemberDTO(tm.id, tm.fullName, tm.nic, tm.contactNo, " +
+            "tm.birthDate, tm.age, tm.address, tm.city, tm.specialization, tm.joinedDate, tm.workingHoursPerDay, " +
+            "t.id, t.name, s.id, TRIM(CONCAT(s.firstName, ' ', s.lastName))) " +
+            "FROM TeamMember tm LEFT JOIN tm.team t LEFT JOIN tm.supervisor s ";
+
     // === Basic CRUD & Validation ===
     boolean existsByNic(String nic);
     boolean existsByNicAndIdNot(String nic, Long id);
 
+    // Which of the given NICs are taken, in one query on the unique NIC index
+    @Query("SELECT tm.nic FROM TeamMember tm WHERE tm.nic IN :nics")
+    List<String> findExistingNics(@Param("nics") Collection<String> nics);
+
+    // (employee user id, workingHoursPerDay) for employee accounts whose phone number matches a team member
+    @Query("SELECT u.id, MAX(tm.workingHoursPerDay) FROM TeamMember tm, User u " +
+           "WHERE u.phoneNumber = tm.contactNo AND u.isActive = true GROUP BY u.id")
+    List<Object[]> findWorkingHoursPerEmployee();
+
     // === Team-based Queries ===
     @Query("SELECT tm FROM TeamMember tm WHERE tm.team.id = :teamId")
     List<TeamMember> findByTeamId(@Param("teamId") Long teamId);
@@ -84,27 +101,38 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, Long> {
                                                @Param("city") TeamMember.District city);
 
     // === Work Schedule ===
-    // UPDATED: Changed from TeamMember.WorkingHours enum to String
-    List<TeamMember> findByWorkingHoursPerDay(String workingHours);
+    // Working hours is a smallint column (idx_team_members_working_hours), so equality and ranges use the index
+    List<TeamMember> findByWorkingHoursPerDay(Short workingHours);
 
-    // UPDATED: Find team members by supervisor and working hours (changed to String)
     @Query("SELECT tm FROM TeamMember tm WHERE tm.supervisor.id = :supervisorId AND tm.workingHoursPerDay = :workingHours")
     List<TeamMember> findBySupervisorIdAndWorkingHours(@Param("supervisorId") Long supervisorId,
-                                                       @Param("workingHours") String workingHours);
+                                                       @Param("workingHours") Short workingHours);
 
     // NEW: Count team members by working hours
     @Query("SELECT COUNT(tm) FROM TeamMember tm WHERE tm.workingHoursPerDay = :workingHours")
-    long countByWorkingHoursPerDay(@Param("workingHours") String workingHours);
+    long countByWorkingHoursPerDay(@Param("workingHours") Short workingHours);
 
     // NEW: Find team members by working hours range (greater than or equal)
-    @Query("SELECT tm FROM TeamMember tm WHERE CAST(tm.workingHoursPerDay AS int) >= :minHours")
-    List<TeamMember> findByWorkingHoursGreaterThanEqual(@Param("minHours") int minHours);
+    @Query("SELECT tm FROM TeamMember tm WHERE tm.workingHoursPerDay >= :minHours")
+    List<TeamMember> findByWorkingHoursGreaterThanEqual(@Param("minHours") Short minHours);
 
     // NEW: Find team members by working hours range (less than or equal)
-    @Query("SELECT tm FROM TeamMember tm WHERE CAST(tm.workingHoursPerDay AS int) <= :maxHours")
-    List<TeamMember> findByWorkingHoursLessThanEqual(@Param("maxHours") int maxHours);
+    @Query("SELECT tm FROM TeamMember tm WHERE tm.workingHoursPerDay <= :maxHours")
+    List<TeamMember> findByWorkingHoursLessThanEqual(@Param("maxHours") Short maxHours);
+
+    @Query("SELECT tm FROM TeamMember tm WHERE tm.workingHoursPerDay BETWEEN :minHours AND :maxHours")
+    List<TeamMember> findByWorkingHoursBetween(@Param("minHours") Short minHours, @Param("maxHours") Short maxHours);
 
     // === Date-based Queries ===
+    // Members without a team (uses idx_team_members_team_id)
+    @Query(DTO_PROJECTION + "WHERE tm.team IS NULL ORDER BY tm.fullName")
+    List<TeamMemberDTO> findDtosByTeamIsNull();
+
+    // Members born in (bornAfter, bornOnOrBefore] (uses idx_team_members_birth_date)
+    @Query(DTO_PROJECTION + "WHERE tm.birthDate > :bornAfter AND tm.birthDate <= :bornOnOrBefore ORDER BY tm.fullName")
+    List<TeamMemberDTO> findDtosByBirthDateRange(@Param("bornAfter") LocalDate bornAfter,
+                                                 @Param("bornOnOrBefore") LocalDate bornOnOrBefore);
+
     List<TeamMember> findByJoinedDateBetween(LocalDate startDate, LocalDate endDate);
 
     // Find team members who joined under a supervisor within date range
@@ -114,22 +142,16 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, Long> {
                                                             @Param("endDate") LocalDate endDate);
 
     // === Search & Filter ===
-    @Query("SELECT tm FROM TeamMember tm WHERE " +
-            "LOWER(tm.fullName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(tm.nic) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(tm.contactNo) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(tm.address) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(tm.workingHoursPerDay) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
-    List<TeamMember> searchTeamMembers(@Param("searchTerm") String searchTerm);
-
-    // Search team members under a specific supervisor
-    @Query("SELECT tm FROM TeamMember tm WHERE tm.supervisor.id = :supervisorId AND " +
-            "(LOWER(tm.fullName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(tm.nic) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(tm.contactNo) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-            "LOWER(tm.workingHoursPerDay) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
-    List<TeamMember> searchTeamMembersBySupervisor(@Param("supervisorId") Long supervisorId,
-                                                   @Param("searchTerm") String searchTerm);
+    // Text search runs through TeamMemberSearchService (trigram indexes / in-memory n-grams)
+
+    // Searchable columns for the in-memory index: id, supervisor id, full name, NIC, contact no, address, working hours
+    @Query("SELECT tm.id, s.id, tm.fullName, tm.nic, tm.contactNo, tm.address, tm.workingHoursPerDay " +
+            "FROM TeamMember tm LEFT JOIN tm.supervisor s")
+    List<Object[]> findSearchableColumns();
+
+    // Load search hits with everything the DTO needs in one query
+    @Query("SELECT tm FROM TeamMember tm LEFT JOIN FETCH tm.team LEFT JOIN FETCH tm.supervisor WHERE tm.id IN :ids")
+    List<TeamMember> findAllWithTeamAndSupervisorByIdIn(@Param("ids") Collection<Long> ids);
 
     // === Combined Filters ===
     @Query("SELECT tm FROM TeamMember tm WHERE " +
@@ -143,7 +165,7 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, Long> {
             @Param("specialization") TeamMember.Specialization specialization,
             @Param("city") TeamMember.District city,
             @Param("supervisorId") Long supervisorId,
-            @Param("workingHours") String workingHours);
+            @Param("workingHours") Short workingHours);
 
     // NEW: Combined filter without supervisor
     @Query("SELECT tm FROM TeamMember tm WHERE " +
@@ -155,7 +177,7 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, Long> {
             @Param("teamId") Long teamId,
             @Param("specialization") TeamMember.Specialization specialization,
             @Param("city") TeamMember.District city,
-            @Param("workingHours") String workingHours);
+            @Param("workingHours") Short workingHours);
 
     // === Performance Optimized Queries ===
     // Eager loading of supervisor details
@@ -176,12 +198,12 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, Long> {
 
     // NEW: Find team members by multiple working hours
     @Query("SELECT tm FROM TeamMember tm WHERE tm.workingHoursPerDay IN :workingHoursList")
-    List<TeamMember> findByWorkingHoursPerDayIn(@Param("workingHoursList") List<String> workingHoursList);
+    List<TeamMember> findByWorkingHoursPerDayIn(@Param("workingHoursList") List<Short> workingHoursList);
 
     // NEW: Find team members by supervisor and multiple working hours
     @Query("SELECT tm FROM TeamMember tm WHERE tm.supervisor.id = :supervisorId AND tm.workingHoursPerDay IN :workingHoursList")
     List<TeamMember> findBySupervisorIdAndWorkingHoursPerDayIn(@Param("supervisorId") Long supervisorId,
-                                                               @Param("workingHoursList") List<String> workingHoursList);
+                                                               @Param("workingHoursList") List<Short> workingHoursList);
 
     // NEW: Get working hours distribution
     @Query("SELECT tm.workingHoursPerDay, COUNT(tm) FROM TeamMember tm GROUP BY tm.workingHoursPerDay ORDER BY tm.workingHoursPerDay")
@@ -191,8 +213,21 @@ public interface TeamMemberRepository extends JpaRepository<TeamMember, Long> {
     @Query("SELECT tm.workingHoursPerDay, COUNT(tm) FROM TeamMember tm WHERE tm.team.id = :teamId GROUP BY tm.workingHoursPerDay ORDER BY tm.workingHoursPerDay")
     List<Object[]> getWorkingHoursDistributionByTeam(@Param("teamId") Long teamId);
 
-    // NEW: Get team statistics
-    @Query("SELECT tm.team.id, COUNT(tm), AVG(tm.age), SUM(CAST(tm.workingHoursPerDay AS int)) " +
-            "FROM TeamMember tm GROUP BY tm.team.id")
+    // Team statistics: team id, name, specialization, member count, average age, total working hours.
+    // Starts from teams so teams without members are included (count 0, null average and sum).
+    String TEAM_STATISTICS = "SELECT t.id, t.name, t.specialization, COUNT(tm), AVG(tm.age), " +
+            "SUM(tm.workingHoursPerDay) FROM Team t LEFT JOIN TeamMember tm ON tm.team = t ";
+
+    @Query(TEAM_STATISTICS + "GROUP BY t.id, t.name, t.specialization ORDER BY t.id")
     List<Object[]> getTeamStatistics();
+
+    @Query(TEAM_STATISTICS + "WHERE t.id IN :teamIds GROUP BY t.id, t.name, t.specialization ORDER BY t.id")
+    List<Object[]> getTeamStatisticsByTeamIdIn(@Param("teamIds") Collection<Long> teamIds);
+
+    // Members of every team, grouped by team, for the statistics above
+    @Query(DTO_PROJECTION + "WHERE t.id IS NOT NULL ORDER BY t.id, tm.fullName")
+    List<TeamMemberDTO> findDtosWithTeam();
+
+    @Query(DTO_PROJECTION + "WHERE t.id IN :teamIds ORDER BY t.id, tm.fullName")
+    List<TeamMemberDTO> findDtosByTeamIdIn(@Param("teamIds") Collection<Long> teamIds);
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.example.demo.repository;
 import com.example.demo.model.Team;
 import com.example.demo.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -22,4 +23,33 @@ public interface TeamRepository extends JpaRepository<Team, Long> {
 
     @Query("SELECT COUNT(t) FROM Team t WHERE t.employee.id = :employeeId")
     Long countByEmployeeId(@Param("employeeId") Long employeeId);
+
+    @Query("SELECT t.id FROM Team t")
+    List<Long> findAllIds();
+
+    // Add a member delta to the running aggregates in one statement; the SET expressions all see the
+    // old values. averageAge is ageSum / memberCount rounded half up: (2 * sum + n) / (2 * n).
+    @Modifying
+    @Query("UPDATE Team t SET t.memberCount = COALESCE(t.memberCount, 0) + :members, " +
+           "t.totalWorkingHours = COALESCE(t.totalWorkingHours, 0) + :workingHours, " +
+           "t.ageSum = COALESCE(t.ageSum, 0) + :ageSum, " +
+           "t.averageAge = CASE WHEN COALESCE(t.memberCount, 0) + :members > 0 " +
+           "  THEN (2 * (COALESCE(t.ageSum, 0) + :ageSum) + COALESCE(t.memberCount, 0) + :members) " +
+           "     / (2 * (COALESCE(t.memberCount, 0) + :members)) " +
+           "  ELSE NULL END " +
+           "WHERE t.id = :teamId")
+    int applyMemberDelta(@Param("teamId") Long teamId, @Param("members") int members,
+                         @Param("workingHours") int workingHours, @Param("ageSum") int ageSum);
+
+    @Modifying
+    @Query("UPDATE Team t SET t.memberCount = :memberCount, t.totalWorkingHours = :totalWorkingHours, " +
+           "t.ageSum = :ageSum, t.averageAge = :averageAge WHERE t.id = :teamId")
+    int setMemberAggregates(@Param("teamId") Long teamId, @Param("memberCount") int memberCount,
+                            @Param("totalWorkingHours") int totalWorkingHours, @Param("ageSum") int ageSum,
+                            @Param("averageAge") Integer averageAge);
+
+    // Aggregates recomputed from team_members: team id, member count, total working hours, age sum
+    @Query("SELECT t.id, COUNT(tm), SUM(tm.workingHoursPerDay), SUM(tm.age) " +
+           "FROM Team t LEFT JOIN TeamMember tm ON tm.team = t GROUP BY t.id")
+    List<Object[]> computeMemberAggregates();
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.WaitlistEntry;
+import com.example.demo.model.WaitlistStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    // Queue order: oldest entry first
+    List<WaitlistEntry> findByStatusAndSlotDateGreaterThanEqualOrderByIdAsc(WaitlistStatus status, LocalDate fromDate);
+
+    List<WaitlistEntry> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    boolean existsByUserIdAndStatusAndSlotDateAndTimeSlotAndServiceType(
+            Long userId, WaitlistStatus status, LocalDate slotDate, String timeSlot, String serviceType);
+
+    // Expire entries whose day has passed
+    @Transactional
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = com.example.demo.model.WaitlistStatus.EXPIRED " +
+           "WHERE w.status = com.example.demo.model.WaitlistStatus.WAITING AND w.slotDate < :today")
+    int expireBefore(@Param("today") LocalDate today);
+}
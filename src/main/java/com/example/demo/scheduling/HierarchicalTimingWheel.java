@@ -0,0 +1,183 @@
+package com.example.demo.scheduling;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel (Varghese &amp; Lauck, as used in Kafka and Netty).
+ *
+ * Level 0 has {@code wheelSize} buckets of {@code tickMillis} each; every level above has the
+ * same number of buckets, each as wide as the whole level below it. A task goes into the lowest
+ * level whose span covers its deadline. When time reaches a higher-level bucket, its tasks are
+ * re-inserted and fall into finer buckets, until they expire from level 0. Adding and cancelling
+ * are O(1) and advancing costs O(1) per tick plus the tasks that move, independent of how many
+ * tasks are pending.
+ *
+ * Deadlines are accurate to one tick. Not thread-safe beyond the synchronized public methods.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    /**
+     * Handle for a scheduled task
+     */
+    public static final class Timeout<T> {
+        private final T task;
+        private final long deadline;
+        private volatile boolean cancelled;
+
+        private Timeout(T task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        public T task() {
+            return task;
+        }
+
+        public long deadline() {
+            return deadline;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        // Lazy: the entry stays in its bucket and is dropped when the bucket is flushed
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private static final class Level<T> {
+        final long tickMillis;
+        final long spanMillis;
+        final List<LinkedList<Timeout<T>>> buckets;
+        long currentTime; // Start of the current bucket, a multiple of tickMillis
+
+        Level(long tickMillis, int wheelSize, long startMillis) {
+            this.tickMillis = tickMillis;
+            this.spanMillis = tickMillis * wheelSize;
+            this.buckets = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                buckets.add(new LinkedList<>());
+            }
+            this.currentTime = startMillis - (startMillis % tickMillis);
+        }
+
+        LinkedList<Timeout<T>> bucketFor(long time) {
+            return buckets.get((int) ((time / tickMillis) % buckets.size()));
+        }
+    }
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final int maxLevels;
+    private final List<Level<T>> levels = new ArrayList<>();
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int maxLevels, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || maxLevels < 1) {
+            throw new IllegalArgumentException("Invalid timing wheel configuration");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.maxLevels = maxLevels;
+        levels.add(new Level<>(tickMillis, wheelSize, startMillis));
+    }
+
+    /**
+     * Schedule a task. Returns null if the deadline is already due (the caller should run it
+     * now) or beyond the span of the top level.
+     */
+    public synchronized Timeout<T> schedule(T task, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(task, deadlineMillis);
+        if (!insert(timeout)) {
+            return null;
+        }
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Move the wheel forward to {@code nowMillis} and return the tasks that have expired
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        Level<T> base = levels.get(0);
+        while (base.currentTime + tickMillis <= nowMillis) {
+            long time = base.currentTime + tickMillis;
+
+            // Move every level whose bucket boundary was crossed, then flush those buckets.
+            // Flushed tasks are re-inserted relative to the new positions and land in finer
+            // buckets (or expire, once they are within the current level-0 tick).
+            base.currentTime = time;
+            for (int i = 1; i < levels.size(); i++) {
+                Level<T> level = levels.get(i);
+                if (time % level.tickMillis == 0) {
+                    level.currentTime = time;
+                }
+            }
+            for (int i = levels.size() - 1; i >= 1; i--) {
+                Level<T> level = levels.get(i);
+                if (level.currentTime == time) {
+                    cascade(level.bucketFor(time), expired);
+                }
+            }
+            cascade(base.bucketFor(time), expired);
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // Furthest deadline that can be scheduled from the current position
+    public synchronized long maxDeadline() {
+        long span = tickMillis;
+        for (int i = 0; i < maxLevels; i++) {
+            span *= wheelSize;
+        }
+        return levels.get(0).currentTime + span;
+    }
+
+    private boolean insert(Timeout<T> timeout) {
+        for (int i = 0; i < maxLevels; i++) {
+            Level<T> level = level(i);
+            if (i == 0 && timeout.deadline < level.currentTime + level.tickMillis) {
+                return false; // Already due
+            }
+            if (timeout.deadline < level.currentTime + level.spanMillis) {
+                level.bucketFor(timeout.deadline).add(timeout);
+                return true;
+            }
+        }
+        return false; // Beyond the top level
+    }
+
+    private Level<T> level(int index) {
+        while (levels.size() <= index) {
+            Level<T> below = levels.get(levels.size() - 1);
+            levels.add(new Level<>(below.spanMillis, wheelSize, levels.get(0).currentTime));
+        }
+        return levels.get(index);
+    }
+
+    // Re-insert a bucket's tasks; the ones that are now due expire
+    private void cascade(LinkedList<Timeout<T>> bucket, List<T> expired) {
+        if (bucket.isEmpty()) {
+            return;
+        }
+        List<Timeout<T>> moving = new ArrayList<>(bucket);
+        bucket.clear();
+        for (Timeout<T> timeout : moving) {
+            if (timeout.cancelled) {
+                size--;
+            } else if (!insert(timeout)) {
+                size--;
+                expired.add(timeout.task);
+            }
+        }
+    }
+}
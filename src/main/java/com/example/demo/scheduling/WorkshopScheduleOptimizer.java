@@ -0,0 +1,345 @@
+package com.example.demo.scheduling;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Packs a day's jobs into per-staff timelines.
+ *
+ * Each staff member works one shift; a job needs its skill (or none), takes durationMinutes and
+ * cannot start before earliestStart (its time slot). On one timeline, running jobs in order of
+ * earliest start gives the earliest possible finish, so a timeline is kept in that order and is
+ * feasible when its last job ends within the shift.
+ *
+ * Construction is greedy (longest job first, onto the least loaded staff member it fits). Local
+ * search then, until the time budget runs out, tries to fit unscheduled jobs in, moving a job to
+ * another timeline to make room if needed, and relocates or swaps jobs to even out utilisation.
+ * Times are minutes since midnight.
+ */
+public class WorkshopScheduleOptimizer {
+
+    public record Job(long id, String skill, int durationMinutes, int earliestStart) {
+    }
+
+    public record Staff(long id, String skill, int shiftStart, int shiftEnd) {
+    }
+
+    public record Placement(long jobId, int start, int end) {
+    }
+
+    public record Result(Map<Long, List<Placement>> timelines, List<Long> unscheduled,
+                         Map<Long, Integer> busyMinutes, long totalBusyMinutes, long totalCapacityMinutes,
+                         int greedyScheduled, int iterations, long elapsedMillis) {
+
+        public double utilisation() {
+            return totalCapacityMinutes == 0 ? 0 : (double) totalBusyMinutes / totalCapacityMinutes;
+        }
+    }
+
+    private static final int STALL_LIMIT = 20000; // Iterations without improvement before stopping early
+    private static final int MAKE_ROOM_ATTEMPTS = 8;
+
+    private final long budgetMillis;
+    private final Random random;
+
+    public WorkshopScheduleOptimizer(long budgetMillis, long seed) {
+        this.budgetMillis = budgetMillis;
+        this.random = new Random(seed);
+    }
+
+    public Result optimize(List<Job> jobs, List<Staff> staff) {
+        long started = System.nanoTime();
+        long deadline = started + budgetMillis * 1_000_000L;
+        State state = new State(jobs, staff);
+
+        state.greedy();
+        int greedyScheduled = jobs.size() - state.unscheduled.size();
+
+        int iterations = 0;
+        int stalled = 0;
+        while (System.nanoTime() < deadline && stalled < STALL_LIMIT) {
+            iterations++;
+            boolean improved;
+            if (!state.unscheduled.isEmpty() && random.nextInt(3) != 0) {
+                improved = state.tryScheduleUnscheduled(random);
+            } else if (random.nextBoolean()) {
+                improved = state.tryRelocate(random);
+            } else {
+                improved = state.trySwap(random);
+            }
+            stalled = improved ? 0 : stalled + 1;
+        }
+
+        return state.toResult(greedyScheduled, iterations, (System.nanoTime() - started) / 1_000_000L);
+    }
+
+    // Mutable search state; jobs and staff are addressed by index
+    private static final class State {
+        final List<Job> jobs;
+        final List<Staff> staff;
+        final int[] jobStaff;               // Staff index per job, -1 when unscheduled
+        final List<List<Integer>> timelines; // Job indexes per staff, ordered by earliest start
+        final int[] busy;                   // Busy minutes per staff
+        final List<Integer> unscheduled = new ArrayList<>();
+        final Map<String, int[]> staffBySkill = new HashMap<>();
+        final int[] allStaff;
+        final Comparator<Integer> byEarliestStart;
+
+        State(List<Job> jobs, List<Staff> staff) {
+            this.jobs = jobs;
+            this.staff = staff;
+            this.jobStaff = new int[jobs.size()];
+            this.busy = new int[staff.size()];
+            this.timelines = new ArrayList<>(staff.size());
+            for (int s = 0; s < staff.size(); s++) {
+                timelines.add(new ArrayList<>());
+            }
+            this.allStaff = new int[staff.size()];
+            Map<String, List<Integer>> grouped = new HashMap<>();
+            for (int s = 0; s < staff.size(); s++) {
+                allStaff[s] = s;
+                if (staff.get(s).skill() != null) {
+                    grouped.computeIfAbsent(staff.get(s).skill(), k -> new ArrayList<>()).add(s);
+                }
+            }
+            grouped.forEach((skill, members) -> staffBySkill.put(skill,
+                    members.stream().mapToInt(Integer::intValue).toArray()));
+            this.byEarliestStart = Comparator.<Integer>comparingInt(j -> jobs.get(j).earliestStart())
+                    .thenComparingLong(j -> jobs.get(j).id());
+        }
+
+        int[] eligible(int job) {
+            String skill = jobs.get(job).skill();
+            if (skill == null) {
+                return allStaff;
+            }
+            return staffBySkill.getOrDefault(skill, new int[0]);
+        }
+
+        void greedy() {
+            List<Integer> order = new ArrayList<>(jobs.size());
+            for (int j = 0; j < jobs.size(); j++) {
+                order.add(j);
+            }
+            order.sort(Comparator.<Integer>comparingInt(j -> -jobs.get(j).durationMinutes())
+                    .thenComparing(byEarliestStart));
+
+            for (int job : order) {
+                int best = -1;
+                for (int s : eligible(job)) {
+                    if ((best == -1 || load(s) < load(best)) && fitsWith(s, job, -1)) {
+                        best = s;
+                    }
+                }
+                if (best == -1) {
+                    jobStaff[job] = -1;
+                    unscheduled.add(job);
+                } else {
+                    add(best, job);
+                }
+            }
+        }
+
+        // Fit an unscheduled job directly, or after moving one job out of the way
+        boolean tryScheduleUnscheduled(Random random) {
+            int index = random.nextInt(unscheduled.size());
+            int job = unscheduled.get(index);
+            int[] candidates = eligible(job);
+            if (candidates.length == 0) {
+                return false;
+            }
+
+            int best = -1;
+            for (int s : candidates) {
+                if ((best == -1 || load(s) < load(best)) && fitsWith(s, job, -1)) {
+                    best = s;
+                }
+            }
+            if (best != -1) {
+                removeUnscheduled(index);
+                add(best, job);
+                return true;
+            }
+
+            for (int attempt = 0; attempt < MAKE_ROOM_ATTEMPTS; attempt++) {
+                int s = candidates[random.nextInt(candidates.length)];
+                List<Integer> timeline = timelines.get(s);
+                if (timeline.isEmpty()) {
+                    continue;
+                }
+                int moving = timeline.get(random.nextInt(timeline.size()));
+                if (!fitsWith(s, job, moving)) {
+                    continue;
+                }
+                for (int t : eligible(moving)) {
+                    if (t != s && fitsWith(t, moving, -1)) {
+                        remove(s, moving);
+                        add(t, moving);
+                        removeUnscheduled(index);
+                        add(s, job);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        // Move a job from a random timeline to one where it lowers the imbalance
+        boolean tryRelocate(Random random) {
+            int s = random.nextInt(staff.size());
+            List<Integer> timeline = timelines.get(s);
+            if (timeline.isEmpty()) {
+                return false;
+            }
+            int job = timeline.get(random.nextInt(timeline.size()));
+            int duration = jobs.get(job).durationMinutes();
+            int best = -1;
+            double bestDelta = 0;
+            for (int t : eligible(job)) {
+                if (t == s) {
+                    continue;
+                }
+                double delta = squaredLoadDelta(s, -duration) + squaredLoadDelta(t, duration);
+                if (delta < bestDelta - 1e-12 && fitsWith(t, job, -1)) {
+                    best = t;
+                    bestDelta = delta;
+                }
+            }
+            if (best == -1) {
+                return false;
+            }
+            remove(s, job);
+            add(best, job);
+            return true;
+        }
+
+        // Exchange two jobs between timelines when both stay feasible and the imbalance drops
+        boolean trySwap(Random random) {
+            int s = random.nextInt(staff.size());
+            int t = random.nextInt(staff.size());
+            if (s == t || timelines.get(s).isEmpty() || timelines.get(t).isEmpty()) {
+                return false;
+            }
+            int a = timelines.get(s).get(random.nextInt(timelines.get(s).size()));
+            int b = timelines.get(t).get(random.nextInt(timelines.get(t).size()));
+            if (!canDo(t, a) || !canDo(s, b)) {
+                return false;
+            }
+            int diff = jobs.get(b).durationMinutes() - jobs.get(a).durationMinutes();
+            if (squaredLoadDelta(s, diff) + squaredLoadDelta(t, -diff) >= -1e-12) {
+                return false;
+            }
+            remove(s, a);
+            remove(t, b);
+            if (fitsWith(s, b, -1) && fitsWith(t, a, -1)) {
+                add(s, b);
+                add(t, a);
+                return true;
+            }
+            add(s, a);
+            add(t, b);
+            return false;
+        }
+
+        boolean canDo(int s, int job) {
+            String skill = jobs.get(job).skill();
+            return skill == null || skill.equals(staff.get(s).skill());
+        }
+
+        // Whether the timeline of s can take job (after leaving out the job 'without', or -1)
+        boolean fitsWith(int s, int job, int without) {
+            Staff member = staff.get(s);
+            Job added = jobs.get(job);
+            if (busy[s] + added.durationMinutes() - (without >= 0 ? jobs.get(without).durationMinutes() : 0)
+                    > member.shiftEnd() - member.shiftStart()) {
+                return false;
+            }
+            int time = member.shiftStart();
+            boolean placed = false;
+            for (int other : timelines.get(s)) {
+                if (other == without) {
+                    continue;
+                }
+                if (!placed && byEarliestStart.compare(job, other) < 0) {
+                    time = Math.max(time, added.earliestStart()) + added.durationMinutes();
+                    placed = true;
+                }
+                Job next = jobs.get(other);
+                time = Math.max(time, next.earliestStart()) + next.durationMinutes();
+            }
+            if (!placed) {
+                time = Math.max(time, added.earliestStart()) + added.durationMinutes();
+            }
+            return time <= member.shiftEnd();
+        }
+
+        double load(int s) {
+            Staff member = staff.get(s);
+            return (double) busy[s] / Math.max(1, member.shiftEnd() - member.shiftStart());
+        }
+
+        double squaredLoadDelta(int s, int deltaMinutes) {
+            Staff member = staff.get(s);
+            double capacity = Math.max(1, member.shiftEnd() - member.shiftStart());
+            double before = busy[s] / capacity;
+            double after = (busy[s] + deltaMinutes) / capacity;
+            return after * after - before * before;
+        }
+
+        void add(int s, int job) {
+            List<Integer> timeline = timelines.get(s);
+            int position = 0;
+            while (position < timeline.size() && byEarliestStart.compare(timeline.get(position), job) < 0) {
+                position++;
+            }
+            timeline.add(position, job);
+            busy[s] += jobs.get(job).durationMinutes();
+            jobStaff[job] = s;
+        }
+
+        void remove(int s, int job) {
+            timelines.get(s).remove(Integer.valueOf(job));
+            busy[s] -= jobs.get(job).durationMinutes();
+            jobStaff[job] = -1;
+        }
+
+        void removeUnscheduled(int index) {
+            int last = unscheduled.size() - 1;
+            unscheduled.set(index, unscheduled.get(last));
+            unscheduled.remove(last);
+        }
+
+        Result toResult(int greedyScheduled, int iterations, long elapsedMillis) {
+            Map<Long, List<Placement>> placements = new HashMap<>();
+            Map<Long, Integer> busyMinutes = new HashMap<>();
+            long totalBusy = 0;
+            long totalCapacity = 0;
+            for (int s = 0; s < staff.size(); s++) {
+                Staff member = staff.get(s);
+                List<Placement> timeline = new ArrayList<>(timelines.get(s).size());
+                int time = member.shiftStart();
+                for (int job : timelines.get(s)) {
+                    Job scheduled = jobs.get(job);
+                    int start = Math.max(time, scheduled.earliestStart());
+                    time = start + scheduled.durationMinutes();
+                    timeline.add(new Placement(scheduled.id(), start, time));
+                }
+                placements.put(member.id(), timeline);
+                busyMinutes.put(member.id(), busy[s]);
+                totalBusy += busy[s];
+                totalCapacity += member.shiftEnd() - member.shiftStart();
+            }
+            List<Long> unscheduledIds = new ArrayList<>(unscheduled.size());
+            for (int job : unscheduled) {
+                unscheduledIds.add(jobs.get(job).id());
+            }
+            unscheduledIds.sort(Long::compare);
+            return new Result(placements, unscheduledIds, busyMinutes, totalBusy, totalCapacity,
+                    greedyScheduled, iterations, elapsedMillis);
+        }
+    }
+}
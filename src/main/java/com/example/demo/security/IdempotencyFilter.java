@@ -0,0 +1,260 @@
+package com.example.demo.security;
+
+import com.example.demo.dto.ApiResponse;
+import com.example.demo.service.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Honours the Idempotency-Key header on POST requests. The first request with a key runs
+ * normally and its response is stored; retries with the same key and body get the stored
+ * response back without reaching the controller. Keys are scoped to the authenticated user.
+ *
+ * Auth endpoints are never handled: their responses carry tokens and passwords must not be
+ * stored in idempotency_records. Only JSON (or empty) bodies are handled, since the body is held
+ * in memory to fingerprint it; other uploads such as the CSV member import stream through
+ * untouched. JSON bodies over MAX_BODY_BYTES get 413, and keys sent without a logged-in user get
+ * 400, as they would otherwise share one key space.
+ *
+ * Registered in SecurityConfig after authorization (not as a @Component, so it does not also
+ * run in the servlet filter chain before the user is known).
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String AUTH_PATH = "/api/auth/";
+    static final int MAX_BODY_BYTES = 1024 * 1024;
+
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyFilter(IdempotencyService idempotencyService, ObjectMapper objectMapper) {
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equalsIgnoreCase(request.getMethod())
+                || request.getHeader(HEADER) == null
+                || request.getRequestURI().startsWith(request.getContextPath() + AUTH_PATH)
+                || !isJson(request.getContentType());
+    }
+
+    private static boolean isJson(String contentType) {
+        if (contentType == null) {
+            return true; // No body
+        }
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return MediaType.APPLICATION_JSON.isCompatibleWith(mediaType) || mediaType.getSubtype().endsWith("+json");
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getHeader(HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST, HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        String user = currentUser();
+        if (user == null) {
+            writeError(response, HttpStatus.BAD_REQUEST, HEADER + " is only supported for logged-in users");
+            return;
+        }
+        if (request.getContentLengthLong() > MAX_BODY_BYTES) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body is too large");
+            return;
+        }
+        byte[] body = StreamUtils.copyToByteArray(new BoundedInputStream(request.getInputStream(), MAX_BODY_BYTES + 1));
+        if (body.length > MAX_BODY_BYTES) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body is too large");
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request, body);
+        String scopedKey = user + ":" + key;
+        String fingerprint = fingerprint(cachedRequest);
+
+        IdempotencyService.Decision decision = idempotencyService.begin(scopedKey, fingerprint);
+        switch (decision.outcome()) {
+            case REPLAY:
+                IdempotencyService.CachedResponse cached = decision.response();
+                response.setStatus(cached.status());
+                if (cached.contentType() != null) {
+                    response.setContentType(cached.contentType());
+                }
+                response.setHeader(REPLAYED_HEADER, "true");
+                if (cached.body() != null) {
+                    response.getOutputStream().write(cached.body().getBytes(StandardCharsets.UTF_8));
+                }
+                return;
+            case IN_PROGRESS:
+                writeError(response, HttpStatus.CONFLICT, "A request with this " + HEADER + " is still being processed");
+                return;
+            case MISMATCH:
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        HEADER + " was already used for a different request");
+                return;
+            default:
+                break;
+        }
+
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(cachedRequest, responseWrapper);
+        } catch (IOException | ServletException | RuntimeException e) {
+            idempotencyService.abort(scopedKey);
+            throw e;
+        }
+
+        idempotencyService.complete(scopedKey, fingerprint, responseWrapper.getStatus(),
+                responseWrapper.getContentType(),
+                new String(responseWrapper.getContentAsByteArray(), StandardCharsets.UTF_8));
+        responseWrapper.copyBodyToResponse();
+    }
+
+    // Null for unauthenticated callers (anonymous tokens report isAuthenticated() as true)
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken) ? authentication.getName() : null;
+    }
+
+    private String fingerprint(CachedBodyRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            if (request.getQueryString() != null) {
+                digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update(request.body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(message));
+    }
+
+    // Reads at most limit bytes of the underlying stream
+    private static class BoundedInputStream extends FilterInputStream {
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b != -1) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+    }
+
+    // Holds the (bounded) body so it can be fingerprinted and still be read by the controller
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(encoding)));
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.example.demo.service;
+
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.model.AppointmentStatus;
+import com.example.demo.model.Role;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming exports of the large admin lists (appointments, customers, team members, reviews).
+ *
+ * Rows are read with plain JDBC through a server-side cursor (fixed fetch size, inside a
+ * read-only transaction so PostgreSQL honours it) and written straight to the response as CSV
+ * or JSON lines, optionally gzipped. Nothing is collected in memory and no entities are loaded,
+ * so memory stays flat however many rows are exported.
+ */
+@Service
+public class AdminExportService {
+
+    private static final int FETCH_SIZE = 1000;
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        JSONL("application/x-ndjson", "jsonl");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Parse a format query parameter ignoring case, e.g. "csv" or "JSONL"
+         */
+        public static Format from(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value.trim())) {
+                    return format;
+                }
+            }
+            throw new BadRequestException("Unknown export format: " + value + " (expected csv or jsonl)");
+        }
+    }
+
+    /**
+     * SQL and parameters of one export; the select list aliases become the CSV header / JSON keys
+     */
+    public record ExportQuery(String name, String sql, MapSqlParameterSource params) {
+    }
+
+    private final NamedParameterJdbcTemplate exportJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public AdminExportService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.exportJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Appointments with appointment date in [from, to), all filters optional
+     */
+    public ExportQuery appointments(LocalDate from, LocalDate to, AppointmentStatus status) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        List<String> where = new ArrayList<>();
+        if (from != null) {
+            where.add("a.appointment_date >= :from");
+            params.addValue("from", from.atStartOfDay());
+        }
+        if (to != null) {
+            where.add("a.appointment_date < :to");
+            params.addValue("to", to.atStartOfDay());
+        }
+        if (status != null) {
+            where.add("a.status = :status");
+            params.addValue("status", status.name());
+        }
+        String sql = "SELECT a.id, a.user_id AS customer_id, u.username AS customer_username, a.vehicle_type, " +
+                "a.vehicle_brand, a.model, a.year_of_manufacture, a.register_number, a.fuel_type, a.service_category, " +
+                "a.service_type, a.appointment_date, a.time_slot, a.status, a.assigned_employee_id, a.created_at " +
+                "FROM appointments a JOIN users u ON u.id = a.user_id" + where(where) +
+                " ORDER BY a.appointment_date, a.id";
+        return new ExportQuery("appointments", sql, params);
+    }
+
+    /**
+     * Customer accounts created in [from, to); never includes passwords or reset tokens
+     */
+    public ExportQuery customers(LocalDate from, LocalDate to, Boolean active) {
+        MapSqlParameterSource params = new MapSqlParameterSource("role", Role.CUSTOMER.name());
+        List<String> where = new ArrayList<>(List.of("u.role = :role"));
+        if (from != null) {
+            where.add("u.created_at >= :from");
+            params.addValue("from", from.atStartOfDay());
+        }
+        if (to != null) {
+            where.add("u.created_at < :to");
+            params.addValue("to", to.atStartOfDay());
+        }
+        if (active != null) {
+            where.add("u.is_active = :active");
+            params.addValue("active", active);
+        }
+        String sql = "SELECT u.id, u.username, u.email, u.first_name, u.last_name, u.phone_number, u.address, " +
+                "u.is_active, u.created_at FROM users u" + where(where) + " ORDER BY u.id";
+        return new ExportQuery("customers", sql, params);
+    }
+
+    public ExportQuery teamMembers(Long teamId, Long supervisorId) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        List<String> where = new ArrayList<>();
+        if (teamId != null) {
+            where.add("tm.team_id = :teamId");
+            params.addValue("teamId", teamId);
+        }
+        if (supervisorId != null) {
+            where.add("tm.supervisor_id = :supervisorId");
+            params.addValue("supervisorId", supervisorId);
+        }
+        String sql = "SELECT tm.id, tm.full_name, tm.nic, tm.contact_no, tm.birth_date, tm.address, tm.city, " +
+                "tm.specialization, tm.joined_date, tm.working_hours_per_day, tm.team_id, t.name AS team_name, " +
+                "tm.supervisor_id FROM team_members tm LEFT JOIN teams t ON t.id = tm.team_id" + where(where) +
+                " ORDER BY tm.id";
+        return new ExportQuery("team-members", sql, params);
+    }
+
+    /**
+     * Reviews written in [from, to) with at least minRating stars, all filters optional
+     */
+    public ExportQuery reviews(LocalDate from, LocalDate to, Integer minRating) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        List<String> where = new ArrayList<>();
+        if (from != null) {
+            where.add("r.created_at >= :from");
+            params.addValue("from", from.atStartOfDay());
+        }
+        if (to != null) {
+            where.add("r.created_at < :to");
+            params.addValue("to", to.atStartOfDay());
+        }
+        if (minRating != null) {
+            where.add("r.rating >= :minRating");
+            params.addValue("minRating", minRating);
+        }
+        String sql = "SELECT r.id, r.rating, r.comment, r.appointment_id, r.user_id, u.username, r.created_at " +
+                "FROM reviews r LEFT JOIN users u ON u.id = r.user_id" + where(where) + " ORDER BY r.id";
+        return new ExportQuery("reviews", sql, params);
+    }
+
+    /**
+     * Run the query and write every row to out as it is read
+     */
+    public void write(ExportQuery query, Format format, boolean gzip, OutputStream out) throws IOException {
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, 64 * 1024) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(
+                compressed != null ? compressed : out, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new JsonLinesRowWriter(writer);
+
+        try {
+            readOnlyTransaction.executeWithoutResult(status ->
+                    exportJdbcTemplate.query(query.sql(), query.params(), (ResultSetExtractor<Void>) rs -> {
+                        try {
+                            rowWriter.start(rs.getMetaData()); // Header even when there are no rows
+                            while (rs.next()) {
+                                rowWriter.writeRow(rs);
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e); // Client went away; stops the cursor
+                        }
+                        return null;
+                    }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+        out.flush();
+    }
+
+    private static String where(List<String> conditions) {
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+
+    // JDBC values in the same form the JSON API uses (ISO dates, enum names as stored)
+    private static Object value(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        if (value instanceof Date date) {
+            return date.toLocalDate().toString();
+        }
+        return value;
+    }
+
+    private abstract static class RowWriter {
+        protected final Writer writer;
+        protected String[] columns;
+
+        RowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        void start(ResultSetMetaData metaData) throws SQLException, IOException {
+            columns = new String[metaData.getColumnCount()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = metaData.getColumnLabel(i + 1).toLowerCase(Locale.ROOT);
+            }
+            writeHeader();
+        }
+
+        void writeHeader() throws IOException {
+        }
+
+        abstract void writeRow(ResultSet rs) throws SQLException, IOException;
+    }
+
+    private static class CsvRowWriter extends RowWriter {
+
+        private static final Pattern NUMBER_OR_PHONE = Pattern.compile("[+-]?[0-9 ()-]+");
+
+        CsvRowWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        void writeHeader() throws IOException {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(columns[i]);
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        void writeRow(ResultSet rs) throws SQLException, IOException {
+            for (int i = 0; i < columns.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = value(rs, i + 1);
+                if (value instanceof String text) {
+                    writer.write(escape(neutralise(text)));
+                } else if (value != null) {
+                    writer.write(escape(value.toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        // Text a spreadsheet would run as a formula (CSV injection) is prefixed with ' so it stays text.
+        // A leading + or - is left alone on plain numbers and phone numbers ("+94 77 123 4567"),
+        // which cannot carry a formula; = @ tab and CR are always prefixed
+        private static String neutralise(String value) {
+            if (value.isEmpty()) {
+                return value;
+            }
+            char first = value.charAt(0);
+            if (first == '=' || first == '@' || first == '\t' || first == '\r') {
+                return "'" + value;
+            }
+            if ((first == '+' || first == '-') && !NUMBER_OR_PHONE.matcher(value).matches()) {
+                return "'" + value;
+            }
+            return value;
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private class JsonLinesRowWriter extends RowWriter {
+        private final JsonGenerator generator;
+
+        JsonLinesRowWriter(Writer writer) throws IOException {
+            super(writer);
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null); // Lines are separated by '\n' below
+        }
+
+        @Override
+        void writeRow(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                generator.writeObjectField(columns[i], value(rs, i + 1));
+            }
+            generator.writeEndObject();
+            generator.flush(); // Into the buffered writer, so the newline lands after the object
+            writer.write('\n');
+        }
+    }
+}
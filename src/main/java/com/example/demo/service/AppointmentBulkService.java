@@ -0,0 +1,281 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.BulkAppointmentRequest;
+import com.example.demo.dto.BulkAppointmentResponse;
+import com.example.demo.event.AppointmentEvent;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.exception.ConflictException;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.model.Appointment;
+import com.example.demo.model.AppointmentStatus;
+import com.example.demo.model.Notification;
+import com.example.demo.model.NotificationType;
+import com.example.demo.model.User;
+import com.example.demo.repository.AppointmentRepository;
+import com.example.demo.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Admin bulk approve / reject / assign / set-status.
+ *
+ * All updates run in one transaction: the appointments are locked (SELECT ... FOR UPDATE) and
+ * checked against their locked state, then written with one UPDATE per current status. Nobody
+ * else can change a locked row, so every checked row is written. Events and notifications are
+ * sent once the transaction has committed, with the notifications saved in a single batch.
+ */
+@Service
+public class AppointmentBulkService {
+
+    private static final int MAX_BULK_SIZE = 500;
+
+    private final AppointmentRepository appointmentRepository;
+    private final UserRepository userRepository;
+    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public AppointmentBulkService(AppointmentRepository appointmentRepository,
+                                  UserRepository userRepository,
+                                  NotificationService notificationService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager) {
+        this.appointmentRepository = appointmentRepository;
+        this.userRepository = userRepository;
+        this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public BulkAppointmentResponse apply(BulkAppointmentRequest request) {
+        List<Long> ids = validate(request);
+        AppointmentStatus target = targetStatus(request);
+        User employee = request.getAction() == BulkAppointmentRequest.Action.ASSIGN
+                ? userRepository.findById(request.getEmployeeId())
+                        .orElseThrow(() -> new ResourceNotFoundException("Employee not found"))
+                : null;
+
+        // Results keyed by id, in request order
+        Map<Long, BulkAppointmentResponse.ItemResult> results = new LinkedHashMap<>();
+        List<Appointment> updated = new ArrayList<>();
+        Map<Long, AppointmentStatus> previousStatuses = new LinkedHashMap<>();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            // Lock first (in id order, so two bulk requests cannot deadlock), then load the customers
+            appointmentRepository.lockAllByIdIn(ids);
+            Map<Long, Appointment> appointments = appointmentRepository.findAllWithUserByIdIn(ids).stream()
+                    .collect(Collectors.toMap(Appointment::getId, Function.identity()));
+
+            // Group the updatable appointments by their current status
+            Map<AppointmentStatus, List<Appointment>> byStatus = new LinkedHashMap<>();
+            for (Long id : ids) {
+                Appointment appointment = appointments.get(id);
+                if (appointment == null) {
+                    results.put(id, failure(id, null, "Appointment not found"));
+                    continue;
+                }
+                String rejection = checkTransition(request, appointment, target);
+                if (rejection != null) {
+                    results.put(id, failure(id, appointment.getStatus(), rejection));
+                    continue;
+                }
+                results.put(id, null);
+                byStatus.computeIfAbsent(appointment.getStatus(), s -> new ArrayList<>()).add(appointment);
+            }
+
+            // One set-based UPDATE per group of locked rows
+            for (Map.Entry<AppointmentStatus, List<Appointment>> group : byStatus.entrySet()) {
+                List<Long> groupIds = group.getValue().stream().map(Appointment::getId).collect(Collectors.toList());
+                int count = employee != null
+                        ? appointmentRepository.bulkCompareAndSetAssignment(groupIds, group.getKey(), target, employee.getId(), now)
+                        : appointmentRepository.bulkCompareAndSetStatus(groupIds, group.getKey(), target, now);
+                if (count != groupIds.size()) {
+                    // Cannot happen while the rows are locked; roll everything back rather than guess
+                    throw new ConflictException("Appointments were changed by someone else. Reload and try again");
+                }
+
+                for (Appointment appointment : group.getValue()) {
+                    Long id = appointment.getId();
+                    previousStatuses.put(id, group.getKey());
+                    updated.add(appointment);
+                    results.put(id, BulkAppointmentResponse.ItemResult.builder()
+                            .appointmentId(id)
+                            .success(true)
+                            .previousStatus(group.getKey().name())
+                            .status(target.name())
+                            .build());
+                }
+            }
+        });
+
+        // Reflect the new state on the (now detached) entities, outside the transaction so
+        // dirty checking does not write the rows a second time
+        Map<Long, Long> previousEmployees = new HashMap<>();
+        for (Appointment appointment : updated) {
+            if (employee != null && appointment.getAssignedEmployeeId() != null
+                    && !appointment.getAssignedEmployeeId().equals(employee.getId())) {
+                previousEmployees.put(appointment.getId(), appointment.getAssignedEmployeeId());
+            }
+            appointment.setStatus(target);
+            appointment.setUpdatedAt(now);
+            if (employee != null) {
+                appointment.setAssignedEmployeeId(employee.getId());
+            }
+        }
+
+        // After commit: events for the caches and listeners, then one batch of notifications
+        for (Appointment appointment : updated) {
+            eventPublisher.publishEvent(AppointmentEvent.from(eventType(request, target), appointment)
+                    .previousStatus(previousStatuses.get(appointment.getId()))
+                    .previousEmployeeId(previousEmployees.get(appointment.getId()))
+                    .build());
+        }
+        notificationService.createAndSendNotifications(buildNotifications(request, updated, employee));
+
+        List<BulkAppointmentResponse.ItemResult> items = new ArrayList<>(results.values());
+        int succeeded = (int) items.stream().filter(BulkAppointmentResponse.ItemResult::isSuccess).count();
+        return BulkAppointmentResponse.builder()
+                .requested(items.size())
+                .succeeded(succeeded)
+                .failed(items.size() - succeeded)
+                .results(items)
+                .build();
+    }
+
+    private List<Long> validate(BulkAppointmentRequest request) {
+        if (request.getAction() == null) {
+            throw new BadRequestException("Action is required");
+        }
+        if (request.getAppointmentIds() == null || request.getAppointmentIds().isEmpty()) {
+            throw new BadRequestException("At least one appointment id is required");
+        }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(request.getAppointmentIds()));
+        ids.removeIf(id -> id == null);
+        if (ids.size() > MAX_BULK_SIZE) {
+            throw new BadRequestException("At most " + MAX_BULK_SIZE + " appointments can be updated at once");
+        }
+        if (request.getAction() == BulkAppointmentRequest.Action.ASSIGN && request.getEmployeeId() == null) {
+            throw new BadRequestException("employeeId is required for ASSIGN");
+        }
+        if (request.getAction() == BulkAppointmentRequest.Action.SET_STATUS && request.getStatus() == null) {
+            throw new BadRequestException("status is required for SET_STATUS");
+        }
+        return ids;
+    }
+
+    private AppointmentStatus targetStatus(BulkAppointmentRequest request) {
+        return switch (request.getAction()) {
+            case APPROVE -> AppointmentStatus.CONFIRMED;
+            case REJECT -> AppointmentStatus.CANCELLED;
+            case ASSIGN -> AppointmentStatus.IN_SERVICE;
+            default -> request.getStatus();
+        };
+    }
+
+    // Same rules as the single-appointment endpoints; returns the reason when not allowed
+    private String checkTransition(BulkAppointmentRequest request, Appointment appointment, AppointmentStatus target) {
+        AppointmentStatus current = appointment.getStatus();
+        return switch (request.getAction()) {
+            case APPROVE -> current == AppointmentStatus.PENDING ? null : "Only pending appointments can be approved";
+            case ASSIGN -> current == AppointmentStatus.IN_SERVICE || current.canTransitionTo(target)
+                    ? null
+                    : "Cannot assign an employee to a " + current + " appointment";
+            default -> {
+                if (current == target) {
+                    yield "Appointment is already " + current;
+                }
+                yield current.canTransitionTo(target)
+                        ? null
+                        : "Cannot change status from " + current + " to " + target;
+            }
+        };
+    }
+
+    private AppointmentEvent.Type eventType(BulkAppointmentRequest request, AppointmentStatus target) {
+        return switch (request.getAction()) {
+            case APPROVE -> AppointmentEvent.Type.APPROVED;
+            case REJECT -> AppointmentEvent.Type.REJECTED;
+            case ASSIGN -> AppointmentEvent.Type.ASSIGNED;
+            default -> target == AppointmentStatus.CANCELLED
+                    ? AppointmentEvent.Type.CANCELLED
+                    : AppointmentEvent.Type.STATUS_CHANGED;
+        };
+    }
+
+    private List<Notification> buildNotifications(BulkAppointmentRequest request, List<Appointment> updated, User employee) {
+        List<Notification> notifications = new ArrayList<>();
+        for (Appointment appointment : updated) {
+            String vehicleInfo = appointment.getVehicleBrand() + " " + appointment.getModel();
+            Long customerId = appointment.getUser().getId();
+            switch (request.getAction()) {
+                case APPROVE -> notifications.add(notification(customerId, appointment.getId(), "Appointment Confirmed",
+                        "Your appointment for " + vehicleInfo + " has been confirmed by admin.",
+                        NotificationType.APPOINTMENT_CONFIRMED));
+                case REJECT -> notifications.add(notification(customerId, appointment.getId(), "Appointment Cancelled",
+                        "Your appointment for " + vehicleInfo + " has been cancelled by admin.",
+                        NotificationType.APPOINTMENT_CANCELLED));
+                case ASSIGN -> {
+                    notifications.add(notification(employee.getId(), appointment.getId(), "New Appointment Assigned",
+                            "You have been assigned to service " + vehicleInfo +
+                            " (Reg: " + appointment.getRegisterNumber() + ")",
+                            NotificationType.EMPLOYEE_ASSIGNED));
+                    notifications.add(notification(customerId, appointment.getId(), "Employee Assigned",
+                            "Employee " + employee.getFirstName() + " " + employee.getLastName() +
+                            " has been assigned to your appointment. Service is now in progress.",
+                            NotificationType.STATUS_CHANGED_IN_SERVICE));
+                }
+                default -> notifications.add(notification(customerId, appointment.getId(), "Appointment Status Updated",
+                        "Your appointment for " + vehicleInfo + " status has been updated to " + appointment.getStatus(),
+                        statusNotificationType(appointment.getStatus())));
+            }
+        }
+        return notifications;
+    }
+
+    private NotificationType statusNotificationType(AppointmentStatus status) {
+        return switch (status) {
+            case CONFIRMED -> NotificationType.APPOINTMENT_CONFIRMED;
+            case IN_SERVICE -> NotificationType.STATUS_CHANGED_IN_SERVICE;
+            case READY -> NotificationType.STATUS_CHANGED_READY;
+            case COMPLETED -> NotificationType.STATUS_CHANGED_COMPLETED;
+            case CANCELLED -> NotificationType.APPOINTMENT_CANCELLED;
+            default -> NotificationType.GENERAL;
+        };
+    }
+
+    private Notification notification(Long recipientId, Long appointmentId, String title, String message,
+                                      NotificationType type) {
+        return Notification.builder()
+                .recipientId(recipientId)
+                .appointmentId(appointmentId)
+                .title(title)
+                .message(message)
+                .type(type)
+                .isRead(false)
+                .build();
+    }
+
+    private BulkAppointmentResponse.ItemResult failure(Long id, AppointmentStatus status, String message) {
+        return BulkAppointmentResponse.ItemResult.builder()
+                .appointmentId(id)
+                .success(false)
+                .previousStatus(status != null ? status.name() : null)
+                .status(status != null ? status.name() : null)
+                .message(message)
+                .build();
+    }
+}
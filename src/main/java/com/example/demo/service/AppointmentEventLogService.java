@@ -0,0 +1,225 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AppointmentChangesResponse;
+import com.example.demo.event.AppointmentEvent;
+import com.example.demo.model.AppointmentEventLog;
+import com.example.demo.model.AppointmentSnapshot;
+import com.example.demo.repository.AppointmentEventLogRepository;
+import com.example.demo.repository.AppointmentSnapshotRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Appointment event log and the "changes since" delta sync built on it.
+ *
+ * Every AppointmentEvent is appended to appointment_events. Clients keep the last sequence they
+ * saw and ask for what came after it. Sequences are handed out at insert time but become visible
+ * at commit, possibly out of order, so reads stop below the oldest sequence whose transaction is
+ * still open; otherwise a client could move past an event that commits later. Like the other
+ * in-memory booking state this assumes one application instance writes the log. Events older than the retention period are folded into
+ * one snapshot per appointment; a client whose sequence predates the retained log receives the
+ * snapshots first and then continues with the log.
+ */
+@Service
+@RequiredArgsConstructor
+public class AppointmentEventLogService {
+
+    public enum Scope { CUSTOMER, EMPLOYEE, ADMIN }
+
+    private static final int MAX_LIMIT = 500;
+    private static final int FOLD_BATCH_SIZE = 5000;
+
+    private final AppointmentEventLogRepository eventLogRepository;
+    private final AppointmentSnapshotRepository snapshotRepository;
+
+    @Value("${appointments.event-log.retention-days:30}")
+    private int retentionDays;
+
+    // Log writes that have not finished: the lowest sequence each one may hold
+    private final ConcurrentHashMap<Object, Long> pendingSequences = new ConcurrentHashMap<>();
+    // Highest sequence a finished save has returned; anything allocated later is above it
+    private final AtomicLong lastSequence = new AtomicLong();
+
+    @PostConstruct
+    public void loadLastSequence() {
+        Long maxId = eventLogRepository.findMaxId();
+        lastSequence.accumulateAndGet(maxId != null ? maxId : 0L, Math::max);
+    }
+
+    @EventListener
+    public void onAppointmentEvent(AppointmentEvent event) {
+        // Before the insert the id is unknown; any id above the last one handed out may be this one
+        Object write = new Object();
+        pendingSequences.put(write, lastSequence.get() + 1);
+
+        AppointmentEventLog saved;
+        try {
+            saved = save(event);
+        } catch (RuntimeException e) {
+            pendingSequences.remove(write);
+            throw e;
+        }
+        lastSequence.accumulateAndGet(saved.getId(), Math::max);
+        pendingSequences.put(write, saved.getId());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    pendingSequences.remove(write);
+                }
+            });
+        } else {
+            pendingSequences.remove(write); // Saved in its own, already committed transaction
+        }
+    }
+
+    private AppointmentEventLog save(AppointmentEvent event) {
+        return eventLogRepository.save(AppointmentEventLog.builder()
+                .appointmentId(event.getAppointmentId())
+                .customerId(event.getCustomerId())
+                .employeeId(event.getEmployeeId())
+                .previousEmployeeId(event.getPreviousEmployeeId())
+                .type(event.getType())
+                .status(event.getStatus())
+                .previousStatus(event.getPreviousStatus())
+                .serviceType(event.getServiceType())
+                .appointmentDate(event.getAppointmentDate())
+                .timeSlot(event.getTimeSlot())
+                .occurredAt(event.getOccurredAt() != null ? event.getOccurredAt() : LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Changes after the given sequence for a scope. ownerId is the customer or employee id
+     * (ignored for ADMIN).
+     */
+    @Transactional(readOnly = true)
+    public AppointmentChangesResponse getChanges(Scope scope, Long ownerId, long since, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+
+        // The client is behind the retained log: catch up from the snapshots first
+        Long foldedThrough = snapshotRepository.findFoldedThrough();
+        if (foldedThrough != null && since < foldedThrough) {
+            List<AppointmentSnapshot> snapshots = findSnapshots(scope, ownerId, since, page);
+            boolean more = snapshots.size() > pageSize;
+            if (more) {
+                snapshots = snapshots.subList(0, pageSize);
+            }
+            return AppointmentChangesResponse.builder()
+                    .snapshots(snapshots)
+                    .events(Collections.emptyList())
+                    .nextSince(more ? snapshots.get(snapshots.size() - 1).getLastSequence() : foldedThrough)
+                    .hasMore(true) // The log after foldedThrough still has to be read
+                    .build();
+        }
+
+        List<AppointmentEventLog> events = findEvents(scope, ownerId, since, visibleBefore(), page);
+        boolean more = events.size() > pageSize;
+        if (more) {
+            events = events.subList(0, pageSize);
+        }
+        return AppointmentChangesResponse.builder()
+                .snapshots(Collections.emptyList())
+                .events(events)
+                .nextSince(events.isEmpty() ? since : events.get(events.size() - 1).getId())
+                .hasMore(more)
+                .build();
+    }
+
+    /**
+     * Fold events older than the retention period into per-appointment snapshots, then delete them
+     */
+    @Scheduled(cron = "0 30 2 * * ?")
+    @Transactional
+    public void foldOldEvents() {
+        Long cutoffId = eventLogRepository.findMaxIdOccurredBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (cutoffId == null) {
+            return;
+        }
+        Long foldedThrough = snapshotRepository.findFoldedThrough();
+        long from = foldedThrough != null ? foldedThrough : 0L;
+
+        // In id windows so a large backlog does not have to fit in memory at once
+        while (from < cutoffId) {
+            long to = Math.min(from + FOLD_BATCH_SIZE, cutoffId);
+            List<AppointmentEventLog> latest = eventLogRepository.findLatestPerAppointmentBetween(from, to);
+            if (!latest.isEmpty()) {
+                Map<Long, AppointmentSnapshot> existing = snapshotRepository.findAllById(
+                                latest.stream().map(AppointmentEventLog::getAppointmentId).collect(Collectors.toList()))
+                        .stream()
+                        .collect(Collectors.toMap(AppointmentSnapshot::getAppointmentId, Function.identity()));
+
+                List<AppointmentSnapshot> snapshots = new ArrayList<>(latest.size());
+                for (AppointmentEventLog event : latest) {
+                    AppointmentSnapshot snapshot = existing.getOrDefault(event.getAppointmentId(),
+                            AppointmentSnapshot.builder().appointmentId(event.getAppointmentId()).build());
+                    snapshot.setCustomerId(event.getCustomerId());
+                    snapshot.setEmployeeId(event.getEmployeeId());
+                    snapshot.setLastEventType(event.getType());
+                    snapshot.setStatus(event.getStatus());
+                    snapshot.setServiceType(event.getServiceType());
+                    snapshot.setAppointmentDate(event.getAppointmentDate());
+                    snapshot.setTimeSlot(event.getTimeSlot());
+                    snapshot.setLastSequence(event.getId());
+                    snapshot.setOccurredAt(event.getOccurredAt());
+                    snapshots.add(snapshot);
+                }
+                snapshotRepository.saveAll(snapshots);
+            }
+            eventLogRepository.deleteBetween(from, to);
+            from = to;
+        }
+    }
+
+    // Exclusive upper bound for reads, taken before the query: every id below it was handed out
+    // to a write that has already finished; ids handed out afterwards are all above it
+    private long visibleBefore() {
+        long before = lastSequence.get() + 1;
+        for (Long sequence : pendingSequences.values()) {
+            before = Math.min(before, sequence);
+        }
+        return before;
+    }
+
+    private List<AppointmentEventLog> findEvents(Scope scope, Long ownerId, long since, long before, PageRequest page) {
+        switch (scope) {
+            case CUSTOMER:
+                return eventLogRepository.findCustomerEventsBetween(ownerId, since, before, page);
+            case EMPLOYEE:
+                return eventLogRepository.findEmployeeEventsBetween(ownerId, since, before, page);
+            default:
+                return eventLogRepository.findEventsBetween(since, before, page);
+        }
+    }
+
+    private List<AppointmentSnapshot> findSnapshots(Scope scope, Long ownerId, long since, PageRequest page) {
+        switch (scope) {
+            case CUSTOMER:
+                return snapshotRepository.findCustomerSnapshotsAfter(ownerId, since, page);
+            case EMPLOYEE:
+                return snapshotRepository.findEmployeeSnapshotsAfter(ownerId, since, page);
+            default:
+                return snapshotRepository.findSnapshotsAfter(since, page);
+        }
+    }
+}
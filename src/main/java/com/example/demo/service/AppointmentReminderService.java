@@ -0,0 +1,288 @@
+package com.example.demo.service;
+
+import com.example.demo.event.AppointmentEvent;
+import com.example.demo.model.Appointment;
+import com.example.demo.model.AppointmentStatus;
+import com.example.demo.model.Notification;
+import com.example.demo.model.NotificationType;
+import com.example.demo.model.User;
+import com.example.demo.repository.AppointmentRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.scheduling.HierarchicalTimingWheel;
+import com.example.demo.util.TimeSlots;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Appointment reminders: customers 24 hours and 1 hour before the appointment, the assigned
+ * employee at the start of their shift on the day.
+ *
+ * Reminders sit in a HierarchicalTimingWheel advanced once per second by a single thread, so
+ * there is no table polling. Only appointments starting within the look-ahead horizon are in
+ * memory; the window is topped up from the database every 15 minutes and kept current from
+ * AppointmentEvents. Due reminders are handed to a dispatch thread in batches, re-checked
+ * against the database and sent through NotificationService (one saveAll) and EmailService.
+ */
+@Slf4j
+@Service
+public class AppointmentReminderService {
+
+    enum Kind { CUSTOMER_24H, CUSTOMER_1H, EMPLOYEE_SHIFT }
+
+    record Reminder(Long appointmentId, Kind kind, long dueAt) {
+    }
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 60;
+    private static final int WHEEL_LEVELS = 4; // 60^4 seconds, about 150 days
+    // Only before service starts: once the car is in the bay a reminder is noise
+    private static final Set<AppointmentStatus> REMINDABLE =
+            EnumSet.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED);
+    private static final DateTimeFormatter WHEN_FORMAT = DateTimeFormatter.ofPattern("EEE d MMM, HH:mm");
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Value("${reminders.enabled:true}")
+    private boolean enabled;
+
+    @Value("${reminders.horizon-hours:48}")
+    private long horizonHours;
+
+    @Value("${reminders.shift-start:08:00}")
+    private String shiftStart;
+
+    @Value("${reminders.batch-size:200}")
+    private int batchSize;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final Map<Long, List<HierarchicalTimingWheel.Timeout<Reminder>>> scheduled = new ConcurrentHashMap<>();
+    private volatile HierarchicalTimingWheel<Reminder> wheel;
+    private volatile LocalDateTime loadedUntil;
+
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+            daemon("reminder-wheel"));
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(daemon("reminder-dispatch"));
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        // The 24-hour reminder must still be ahead when an appointment enters the window
+        horizonHours = Math.max(horizonHours, 25);
+        LocalDateTime now = LocalDateTime.now();
+        wheel = new HierarchicalTimingWheel<>(TICK_MILLIS, WHEEL_SIZE, WHEEL_LEVELS, toMillis(now));
+        loadedUntil = now;
+        refill();
+        ticker.scheduleAtFixedRate(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    // Load appointments that have moved into the look-ahead window since the last refill
+    @Scheduled(fixedDelay = 900000, initialDelay = 900000)
+    public synchronized void refill() {
+        if (wheel == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = loadedUntil;
+        LocalDateTime to = now.plusHours(horizonHours);
+
+        // Slots without a time of day are stored at midnight, so query from the start of the day
+        List<Appointment> upcoming = appointmentRepository.findWithUserBetween(
+                from.toLocalDate().atStartOfDay(), to, REMINDABLE);
+        loadedUntil = to;
+        for (Appointment appointment : upcoming) {
+            LocalDateTime start = TimeSlots.appointmentStart(appointment.getAppointmentDate(), appointment.getTimeSlot());
+            if (start.isAfter(from) && !scheduled.containsKey(appointment.getId())) {
+                schedule(appointment.getId(), start, appointment.getAssignedEmployeeId(), appointment.getStatus());
+            }
+        }
+
+        // Forget appointments whose reminders have all fired
+        long nowMillis = toMillis(now);
+        scheduled.values().removeIf(timeouts -> timeouts.stream().allMatch(t -> t.deadline() < nowMillis));
+    }
+
+    @EventListener
+    public void onAppointmentEvent(AppointmentEvent event) {
+        if (wheel == null || event.getAppointmentId() == null) {
+            return;
+        }
+        LocalDateTime start = TimeSlots.appointmentStart(event.getAppointmentDate(), event.getTimeSlot());
+        schedule(event.getAppointmentId(), start, event.getEmployeeId(), event.getStatus());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+        dispatcher.shutdownNow();
+    }
+
+    // Replace an appointment's reminders; nothing is scheduled outside the loaded window
+    private synchronized void schedule(Long appointmentId, LocalDateTime start, Long employeeId, AppointmentStatus status) {
+        List<HierarchicalTimingWheel.Timeout<Reminder>> previous = scheduled.remove(appointmentId);
+        if (previous != null) {
+            previous.forEach(HierarchicalTimingWheel.Timeout::cancel);
+        }
+        if (start == null || status == null || !REMINDABLE.contains(status) || start.isAfter(loadedUntil)) {
+            return;
+        }
+
+        List<HierarchicalTimingWheel.Timeout<Reminder>> timeouts = new ArrayList<>(3);
+        add(timeouts, appointmentId, Kind.CUSTOMER_24H, start.minusHours(24));
+        add(timeouts, appointmentId, Kind.CUSTOMER_1H, start.minusHours(1));
+        if (employeeId != null) {
+            LocalDateTime shift = start.toLocalDate().atTime(LocalTime.parse(shiftStart));
+            if (shift.isBefore(start)) {
+                add(timeouts, appointmentId, Kind.EMPLOYEE_SHIFT, shift);
+            }
+        }
+        if (!timeouts.isEmpty()) {
+            scheduled.put(appointmentId, timeouts);
+        }
+    }
+
+    private void add(List<HierarchicalTimingWheel.Timeout<Reminder>> timeouts, Long appointmentId, Kind kind,
+                     LocalDateTime due) {
+        long dueAt = toMillis(due);
+        HierarchicalTimingWheel.Timeout<Reminder> timeout = wheel.schedule(new Reminder(appointmentId, kind, dueAt), dueAt);
+        if (timeout != null) { // null = already past; late reminders are skipped
+            timeouts.add(timeout);
+        }
+    }
+
+    private void tick() {
+        try {
+            List<Reminder> due = wheel.advance(System.currentTimeMillis());
+            for (int i = 0; i < due.size(); i += batchSize) {
+                List<Reminder> batch = new ArrayList<>(due.subList(i, Math.min(i + batchSize, due.size())));
+                dispatcher.execute(() -> dispatch(batch));
+            }
+        } catch (RuntimeException e) {
+            log.error("Reminder wheel tick failed", e);
+        }
+    }
+
+    private void dispatch(List<Reminder> batch) {
+        try {
+            Map<Long, Appointment> appointments = appointmentRepository.findAllWithUserByIdIn(
+                            batch.stream().map(Reminder::appointmentId).distinct().collect(Collectors.toList()))
+                    .stream()
+                    .collect(Collectors.toMap(Appointment::getId, Function.identity()));
+
+            List<Notification> notifications = new ArrayList<>();
+            Map<Long, List<Appointment>> shiftsByEmployee = new LinkedHashMap<>();
+            for (Reminder reminder : batch) {
+                Appointment appointment = appointments.get(reminder.appointmentId());
+                if (appointment == null || !REMINDABLE.contains(appointment.getStatus())) {
+                    continue; // Cancelled or finished since the reminder was scheduled
+                }
+                LocalDateTime start = TimeSlots.appointmentStart(appointment.getAppointmentDate(), appointment.getTimeSlot());
+                String vehicleInfo = appointment.getVehicleBrand() + " " + appointment.getModel();
+                User customer = appointment.getUser();
+
+                switch (reminder.kind()) {
+                    case CUSTOMER_24H:
+                    case CUSTOMER_1H:
+                        String when = (reminder.kind() == Kind.CUSTOMER_24H ? "tomorrow, " : "in one hour, ")
+                                + start.format(WHEN_FORMAT);
+                        notifications.add(Notification.builder()
+                                .recipientId(customer.getId())
+                                .appointmentId(appointment.getId())
+                                .title("Appointment Reminder")
+                                .message("Your appointment for " + vehicleInfo + " is " + when +
+                                        " (" + appointment.getTimeSlot() + ").")
+                                .type(NotificationType.APPOINTMENT_REMINDER)
+                                .isRead(false)
+                                .build());
+                        emailService.sendAppointmentReminderEmail(customer.getEmail(), customer.getFirstName(),
+                                vehicleInfo, when, appointment.getTimeSlot());
+                        break;
+                    case EMPLOYEE_SHIFT:
+                        if (appointment.getAssignedEmployeeId() != null) {
+                            shiftsByEmployee.computeIfAbsent(appointment.getAssignedEmployeeId(), id -> new ArrayList<>())
+                                    .add(appointment);
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+
+            // One notification per appointment, one email per employee
+            Map<Long, User> employees = userRepository.findAllById(shiftsByEmployee.keySet()).stream()
+                    .collect(Collectors.toMap(User::getId, Function.identity()));
+            shiftsByEmployee.forEach((employeeId, assigned) -> {
+                List<String> lines = new ArrayList<>(assigned.size());
+                for (Appointment appointment : assigned) {
+                    String line = appointment.getTimeSlot() + " - " + appointment.getVehicleBrand() + " " +
+                            appointment.getModel() + " (Reg: " + appointment.getRegisterNumber() + "), " +
+                            appointment.getServiceType();
+                    lines.add(line);
+                    notifications.add(Notification.builder()
+                            .recipientId(employeeId)
+                            .appointmentId(appointment.getId())
+                            .title("Today's Appointment")
+                            .message("Scheduled today: " + line)
+                            .type(NotificationType.APPOINTMENT_REMINDER)
+                            .isRead(false)
+                            .build());
+                }
+                User employee = employees.get(employeeId);
+                if (employee != null && employee.getEmail() != null) {
+                    emailService.sendShiftScheduleEmail(employee.getEmail(), employee.getFirstName(), lines);
+                }
+            });
+
+            notificationService.createAndSendNotifications(notifications);
+        } catch (RuntimeException e) {
+            log.error("Failed to dispatch {} appointment reminders", batch.size(), e);
+        }
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private static java.util.concurrent.ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
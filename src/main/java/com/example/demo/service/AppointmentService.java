@@ -3,6 +3,13 @@ package com.example.demo.service;
 
 import com.example.demo.dto.AppointmentDTO;
 import com.example.demo.dto.AppointmentAdminResponse;
+import com.example.demo.dto.AppointmentSearchRequest;
+import com.example.demo.dto.AppointmentSearchResponse;
+import com.example.demo.dto.CustomerAppointmentPageResponse;
+import com.example.demo.dto.CustomerAppointmentSummary;
+import com.example.demo.event.AppointmentEvent;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.exception.ConflictException;
 import com.example.demo.model.Appointment;
 import com.example.demo.model.AppointmentChangeRequest;
 import com.example.demo.model.AppointmentStatus;
@@ -11,13 +18,24 @@ import com.example.demo.model.User;
 import com.example.demo.repository.AppointmentRepository;
 import com.example.demo.repository.AppointmentChangeRequestRepository;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.util.TimeSlots;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Service
 public class AppointmentService {
@@ -34,12 +52,40 @@ public class AppointmentService {
     @Autowired
     private AppointmentChangeRequestRepository changeRequestRepository;
 
+    @Autowired
+    private SlotReservationService slotReservationService;
+
+    @Autowired
+    private ServiceCapacityService serviceCapacityService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private static final int MAX_SEARCH_PAGE_SIZE = 200;
+    private static final int SEARCH_COUNT_CAP = 1000;
+    private static final int MAX_CUSTOMER_PAGE_SIZE = 200;
+    private static final Set<AppointmentStatus> EDITABLE_STATUSES =
+            Set.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED);
+
     // Create an appointment
     public Appointment createAppointment(AppointmentDTO appointmentDTO, String username) {
         // Get the logged-in user by username, throwing an exception if the user is not found
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
+        validateBookingRequest(appointmentDTO);
+
+        // Claim the time slot first so concurrent bookings of the same slot fail fast
+        LocalDate slotDate = appointmentDTO.getAppointmentDate().toLocalDate();
+        if (!slotReservationService.tryReserve(slotDate, appointmentDTO.getTimeSlot())) {
+            throw new ConflictException("The selected time slot is no longer available");
+        }
+        // Then the service's daily capacity for that date
+        if (!serviceCapacityService.tryReserve(appointmentDTO.getServiceType(), slotDate)) {
+            slotReservationService.release(slotDate, appointmentDTO.getTimeSlot());
+            throw new ConflictException(appointmentDTO.getServiceType() + " is fully booked on " + slotDate);
+        }
+
         Appointment appointment = new Appointment();
         appointment.setVehicleType(appointmentDTO.getVehicleType());
         appointment.setVehicleBrand(appointmentDTO.getVehicleBrand());
@@ -55,7 +101,16 @@ public class AppointmentService {
         appointment.setStatus(AppointmentStatus.PENDING);  // Default to Pending
         appointment.setUser(user);  // Assign the logged-in user to the appointment
 
-        Appointment savedAppointment = appointmentRepository.save(appointment);
+        Appointment savedAppointment;
+        try {
+            savedAppointment = appointmentRepository.save(appointment);
+        } catch (RuntimeException e) {
+            slotReservationService.release(slotDate, appointmentDTO.getTimeSlot());
+            serviceCapacityService.release(appointmentDTO.getServiceType(), slotDate);
+            throw e;
+        }
+
+        publishEvent(AppointmentEvent.Type.CREATED, savedAppointment, null);
 
         // Notify customer about appointment creation
         notificationService.notifyCustomer(
@@ -79,13 +134,43 @@ public class AppointmentService {
         return savedAppointment;
     }
 
+    /**
+     * Fields a new booking needs (the NOT NULL appointment columns and a known time slot).
+     * Shared with the waitlist, which books through createAppointment later.
+     */
+    static void validateBookingRequest(AppointmentDTO appointmentDTO) {
+        if (appointmentDTO.getAppointmentDate() == null || appointmentDTO.getTimeSlot() == null) {
+            throw new BadRequestException("Appointment date and time slot are required");
+        }
+        if (!TimeSlots.isKnown(appointmentDTO.getTimeSlot())) {
+            throw new BadRequestException("Unknown time slot: " + appointmentDTO.getTimeSlot());
+        }
+        if (isBlank(appointmentDTO.getVehicleType()) || isBlank(appointmentDTO.getVehicleBrand())
+                || isBlank(appointmentDTO.getRegisterNumber())) {
+            throw new BadRequestException("Vehicle type, vehicle brand and register number are required");
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
     // Get all appointments for the logged-in customer
-    public List<Appointment> getAppointmentsByCustomer(String username) {
-        // Get the logged-in user by username
-        Optional<User> user = userRepository.findByUsername(username);
+    public CustomerAppointmentPageResponse getAppointmentsByCustomer(String username, int page, int size) {
+        // Only the user's id is needed to filter the projection query
+        Long userId = userRepository.findIdByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
-        // Fetch all appointments associated with this user
-        return appointmentRepository.findByUser(user);  // Custom method to find appointments by user
+        int pageSize = Math.max(1, Math.min(size, MAX_CUSTOMER_PAGE_SIZE));
+        PageRequest pageRequest = PageRequest.of(Math.max(0, page), pageSize,
+                Sort.by(Sort.Order.desc("appointmentDate"), Sort.Order.desc("id")));
+        Slice<CustomerAppointmentSummary> slice = appointmentRepository.findSummariesByUserId(userId, pageRequest);
+        return CustomerAppointmentPageResponse.builder()
+                .appointments(slice.getContent())
+                .page(pageRequest.getPageNumber())
+                .size(pageSize)
+                .hasMore(slice.hasNext())
+                .build();
     }
 
     // Optional: Get status of a specific appointment
@@ -109,19 +194,88 @@ public class AppointmentService {
                 .collect(Collectors.toList());
     }
 
+    // Admin: Search appointments with server-side filters and keyset pagination
+    @Transactional(readOnly = true)
+    public AppointmentSearchResponse searchAppointments(AppointmentSearchRequest request) {
+        int size = request.getSize() == null ? 50 : Math.max(1, Math.min(request.getSize(), MAX_SEARCH_PAGE_SIZE));
+
+        LocalDateTime fromDate = request.getFromDate() != null ? request.getFromDate().atStartOfDay() : null;
+        LocalDateTime toDate = request.getToDate() != null ? request.getToDate().plusDays(1).atStartOfDay() : null;
+        String serviceType = emptyToNull(request.getServiceType());
+        String registerNumber = emptyToNull(request.getRegisterNumber());
+
+        // A cursor is only meaningful as a (date, id) pair
+        LocalDateTime cursorDate = request.getCursorId() != null ? request.getCursorDate() : null;
+        Long cursorId = cursorDate != null ? request.getCursorId() : null;
+
+        // Fetch one extra row to know whether another page exists
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<Appointment> rows = "asc".equalsIgnoreCase(request.getDirection())
+                ? appointmentRepository.searchAscending(request.getStatus(), fromDate, toDate, serviceType,
+                        request.getEmployeeId(), registerNumber, request.getCustomerId(), cursorDate, cursorId, page)
+                : appointmentRepository.searchDescending(request.getStatus(), fromDate, toDate, serviceType,
+                        request.getEmployeeId(), registerNumber, request.getCustomerId(), cursorDate, cursorId, page);
+
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = rows.subList(0, size);
+        }
+
+        // Count at most SEARCH_COUNT_CAP + 1 matches; large result sets report "1000+" instead of scanning everything
+        List<Long> matchingIds = appointmentRepository.findSearchIds(request.getStatus(), fromDate, toDate,
+                serviceType, request.getEmployeeId(), registerNumber, request.getCustomerId(),
+                PageRequest.of(0, SEARCH_COUNT_CAP + 1));
+        boolean totalCapped = matchingIds.size() > SEARCH_COUNT_CAP;
+
+        Map<Long, User> employees = findEmployeesFor(rows);
+        List<AppointmentAdminResponse> appointments = rows.stream()
+                .map(appointment -> convertToAdminResponse(appointment,
+                        employees.get(appointment.getAssignedEmployeeId())))
+                .collect(Collectors.toList());
+
+        Appointment last = hasMore ? rows.get(rows.size() - 1) : null;
+        return AppointmentSearchResponse.builder()
+                .appointments(appointments)
+                .hasMore(hasMore)
+                .nextCursorDate(last != null ? last.getAppointmentDate() : null)
+                .nextCursorId(last != null ? last.getId() : null)
+                .totalCount(totalCapped ? SEARCH_COUNT_CAP : matchingIds.size())
+                .totalCapped(totalCapped)
+                .build();
+    }
+
+    // Load the assigned employees of a page of appointments in one query
+    private Map<Long, User> findEmployeesFor(List<Appointment> appointments) {
+        Set<Long> employeeIds = appointments.stream()
+                .map(Appointment::getAssignedEmployeeId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (employeeIds.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findAllById(employeeIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
+    private String emptyToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+
     // Convert Appointment to AppointmentAdminResponse with customer details
     private AppointmentAdminResponse convertToAdminResponse(Appointment appointment) {
-        User customer = appointment.getUser();
-
-        // Get assigned employee name if exists
-        String assignedEmployeeName = null;
+        // Get assigned employee if exists
+        User employee = null;
         if (appointment.getAssignedEmployeeId() != null) {
-            Optional<User> employee = userRepository.findById(appointment.getAssignedEmployeeId());
-            if (employee.isPresent()) {
-                User emp = employee.get();
-                assignedEmployeeName = emp.getFirstName() + " " + emp.getLastName();
-            }
+            employee = userRepository.findById(appointment.getAssignedEmployeeId()).orElse(null);
         }
+        return convertToAdminResponse(appointment, employee);
+    }
+
+    private AppointmentAdminResponse convertToAdminResponse(Appointment appointment, User employee) {
+        User customer = appointment.getUser();
+        String assignedEmployeeName = employee != null
+                ? employee.getFirstName() + " " + employee.getLastName()
+                : null;
 
         return AppointmentAdminResponse.builder()
                 .id(appointment.getId())
@@ -158,8 +312,9 @@ public class AppointmentService {
             throw new IllegalStateException("Only pending appointments can be approved");
         }
 
-        appointment.setStatus(AppointmentStatus.CONFIRMED);
-        Appointment savedAppointment = appointmentRepository.save(appointment);
+        Appointment savedAppointment = transitionStatus(appointment, AppointmentStatus.CONFIRMED);
+
+        publishEvent(AppointmentEvent.Type.APPROVED, savedAppointment, AppointmentStatus.PENDING);
 
         // Notify customer about appointment confirmation
         User customer = appointment.getUser();
@@ -180,8 +335,13 @@ public class AppointmentService {
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new IllegalArgumentException("Appointment not found"));
 
-        appointment.setStatus(AppointmentStatus.CANCELLED);
-        Appointment savedAppointment = appointmentRepository.save(appointment);
+        AppointmentStatus previousStatus = appointment.getStatus();
+        Appointment savedAppointment = transitionStatus(appointment, AppointmentStatus.CANCELLED);
+        if (previousStatus == AppointmentStatus.CANCELLED) {
+            return savedAppointment; // Already cancelled; nothing changed, nothing to announce
+        }
+
+        publishEvent(AppointmentEvent.Type.REJECTED, savedAppointment, previousStatus);
 
         // Notify customer about appointment cancellation
         User customer = appointment.getUser();
@@ -197,6 +357,47 @@ public class AppointmentService {
         return savedAppointment;
     }
 
+    // Admin: Plan who will service an appointment that has not started yet (status is unchanged)
+    public Appointment planEmployeeAssignment(Long appointmentId, Long employeeId) {
+        Appointment appointment = appointmentRepository.findById(appointmentId)
+                .orElseThrow(() -> new IllegalArgumentException("Appointment not found"));
+
+        userRepository.findById(employeeId)
+                .orElseThrow(() -> new IllegalArgumentException("Employee not found"));
+
+        AppointmentStatus status = appointment.getStatus();
+        if (!EDITABLE_STATUSES.contains(status)) {
+            throw new BadRequestException("Cannot plan an employee for a " + status + " appointment");
+        }
+        Long previousEmployeeId = appointment.getAssignedEmployeeId();
+        if (Objects.equals(previousEmployeeId, employeeId)) {
+            return appointment;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (appointmentRepository.compareAndSetAssignee(appointmentId, status, previousEmployeeId, employeeId, now) == 0) {
+            throw new ConflictException("The appointment was changed by someone else. Reload and try again");
+        }
+        appointment.setAssignedEmployeeId(employeeId);
+        appointment.setUpdatedAt(now);
+
+        eventPublisher.publishEvent(AppointmentEvent.from(AppointmentEvent.Type.ASSIGNED, appointment)
+                .previousEmployeeId(previousEmployeeId)
+                .build());
+
+        // Only the employee hears about it; the customer is told when the service actually starts
+        notificationService.notifyEmployee(
+                employeeId,
+                appointmentId,
+                "New Appointment Assigned",
+                "You have been assigned to service " + appointment.getVehicleBrand() + " " +
+                appointment.getModel() + " (Reg: " + appointment.getRegisterNumber() + ") on " +
+                appointment.getAppointmentDate().toLocalDate() + " at " + appointment.getTimeSlot(),
+                NotificationType.EMPLOYEE_ASSIGNED
+        );
+
+        return appointment;
+    }
+
     // Admin: Assign employee to appointment (change status to IN_SERVICE)
     public Appointment assignEmployeeToAppointment(Long appointmentId, Long employeeId) {
         Appointment appointment = appointmentRepository.findById(appointmentId)
@@ -206,13 +407,27 @@ public class AppointmentService {
         User employee = userRepository.findById(employeeId)
                 .orElseThrow(() -> new IllegalArgumentException("Employee not found"));
 
-        // Assign the employee
-        appointment.setAssignedEmployeeId(employeeId);
+        AppointmentStatus previousStatus = appointment.getStatus();
+        Long previousEmployeeId = appointment.getAssignedEmployeeId();
 
-        // Change status to IN_SERVICE
+        // Assign the employee and change status to IN_SERVICE (reassigning keeps IN_SERVICE)
+        if (previousStatus != AppointmentStatus.IN_SERVICE && !previousStatus.canTransitionTo(AppointmentStatus.IN_SERVICE)) {
+            throw new BadRequestException("Cannot assign an employee to a " + previousStatus + " appointment");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (appointmentRepository.compareAndSetAssignment(
+                appointmentId, previousStatus, AppointmentStatus.IN_SERVICE, employeeId, now) == 0) {
+            throw new ConflictException("The appointment was changed by someone else. Reload and try again");
+        }
+        appointment.setAssignedEmployeeId(employeeId);
         appointment.setStatus(AppointmentStatus.IN_SERVICE);
+        appointment.setUpdatedAt(now);
+        Appointment savedAppointment = appointment;
 
-        Appointment savedAppointment = appointmentRepository.save(appointment);
+        eventPublisher.publishEvent(AppointmentEvent.from(AppointmentEvent.Type.ASSIGNED, savedAppointment)
+                .previousStatus(previousStatus)
+                .previousEmployeeId(Objects.equals(previousEmployeeId, employeeId) ? null : previousEmployeeId)
+                .build());
 
         // Notify employee about assignment
         notificationService.notifyEmployee(
@@ -257,8 +472,10 @@ public class AppointmentService {
         }
 
         // Update status
-        appointment.setStatus(AppointmentStatus.CANCELLED);
-        appointmentRepository.save(appointment);
+        AppointmentStatus previousStatus = appointment.getStatus();
+        transitionStatus(appointment, AppointmentStatus.CANCELLED);
+
+        publishEvent(AppointmentEvent.Type.CANCELLED, appointment, previousStatus);
 
         // Notify admins about cancellation
         notificationService.notifyAdmins(
@@ -309,9 +526,40 @@ public class AppointmentService {
                 .build();
     }
 
-    // Get booked time slots for a specific date
+    // Get booked time slots for a specific date (served from the in-memory slot bitmap)
     public List<String> getBookedTimeSlots(LocalDate date) {
-        return appointmentRepository.findBookedTimeSlotsByDate(date);
+        return slotReservationService.getBookedSlots(date);
+    }
+
+    /**
+     * Move an appointment to a new status with a single compare-and-set UPDATE.
+     * Throws BadRequestException if the transition is not allowed and ConflictException if the
+     * appointment's status changed since it was loaded. Returns the appointment with the new status.
+     */
+    public Appointment transitionStatus(Appointment appointment, AppointmentStatus next) {
+        AppointmentStatus current = appointment.getStatus();
+        if (current == next) {
+            return appointment;
+        }
+        if (!current.canTransitionTo(next)) {
+            throw new BadRequestException("Cannot change status from " + current + " to " + next +
+                    ". Allowed: " + current.allowedTransitions());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (appointmentRepository.compareAndSetStatus(appointment.getId(), current, next, now) == 0) {
+            throw new ConflictException("The appointment was changed by someone else. Reload and try again");
+        }
+        appointment.setStatus(next);
+        appointment.setUpdatedAt(now);
+        return appointment;
+    }
+
+    // Publish an AppointmentEvent for a state change; previousStatus is null when the status did not change
+    private void publishEvent(AppointmentEvent.Type type, Appointment appointment, AppointmentStatus previousStatus) {
+        eventPublisher.publishEvent(AppointmentEvent.from(type, appointment)
+                .previousStatus(previousStatus)
+                .build());
     }
 
     // Update appointment date/time/service/notes (only if approved change request exists)
@@ -345,28 +593,90 @@ public class AppointmentService {
             throw new RuntimeException("No approved change request found for this appointment");
         }
 
-        // Update date and time
-        appointment.setAppointmentDate(appointmentDTO.getAppointmentDate());
-        appointment.setTimeSlot(appointmentDTO.getTimeSlot());
+        if (appointmentDTO.getAppointmentDate() == null || appointmentDTO.getTimeSlot() == null) {
+            throw new BadRequestException("Appointment date and time slot are required");
+        }
+        if (!TimeSlots.isKnown(appointmentDTO.getTimeSlot())) {
+            throw new BadRequestException("Unknown time slot: " + appointmentDTO.getTimeSlot());
+        }
 
-        // Update service if provided
-        if (appointmentDTO.getServiceCategory() != null && !appointmentDTO.getServiceCategory().isEmpty()) {
-            appointment.setServiceCategory(appointmentDTO.getServiceCategory());
+        LocalDateTime previousDate = appointment.getAppointmentDate();
+        String previousTimeSlot = appointment.getTimeSlot();
+        String previousServiceType = appointment.getServiceType();
+
+        // Claim the new slot before moving; the old one is released by the RESCHEDULED event
+        boolean slotChanged = !previousDate.toLocalDate().equals(appointmentDTO.getAppointmentDate().toLocalDate())
+                || !previousTimeSlot.equals(appointmentDTO.getTimeSlot());
+        LocalDate newSlotDate = appointmentDTO.getAppointmentDate().toLocalDate();
+        if (slotChanged && !slotReservationService.tryReserve(newSlotDate, appointmentDTO.getTimeSlot())) {
+            throw new ConflictException("The selected time slot is no longer available");
         }
-        if (appointmentDTO.getServiceType() != null && !appointmentDTO.getServiceType().isEmpty()) {
-            appointment.setServiceType(appointmentDTO.getServiceType());
+
+        // Claim capacity on the new day/service; the old capacity is returned by the RESCHEDULED event
+        String newServiceType = appointmentDTO.getServiceType() != null && !appointmentDTO.getServiceType().isEmpty()
+                ? appointmentDTO.getServiceType()
+                : previousServiceType;
+        boolean capacityChanged = !previousDate.toLocalDate().equals(newSlotDate)
+                || !Objects.equals(previousServiceType, newServiceType);
+        if (capacityChanged && !serviceCapacityService.tryReserve(newServiceType, newSlotDate)) {
+            if (slotChanged) {
+                slotReservationService.release(newSlotDate, appointmentDTO.getTimeSlot());
+            }
+            throw new ConflictException(newServiceType + " is fully booked on " + newSlotDate);
         }
 
-        // Update additional requirements/notes if provided
-        if (appointmentDTO.getAdditionalRequirements() != null) {
-            appointment.setAdditionalRequirements(appointmentDTO.getAdditionalRequirements());
+        // Keep the current service and notes unless new ones are provided
+        String newServiceCategory = appointmentDTO.getServiceCategory() != null && !appointmentDTO.getServiceCategory().isEmpty()
+                ? appointmentDTO.getServiceCategory()
+                : appointment.getServiceCategory();
+        String newAdditionalRequirements = appointmentDTO.getAdditionalRequirements() != null
+                ? appointmentDTO.getAdditionalRequirements()
+                : appointment.getAdditionalRequirements();
+
+        // Write only the rescheduled columns, so a status change made meanwhile is not overwritten
+        LocalDateTime now = LocalDateTime.now();
+        int updated;
+        try {
+            updated = appointmentRepository.reschedule(appointmentId, appointmentDTO.getAppointmentDate(),
+                    appointmentDTO.getTimeSlot(), newServiceCategory, newServiceType, newAdditionalRequirements,
+                    EDITABLE_STATUSES, now);
+        } catch (RuntimeException e) {
+            releaseRescheduleClaims(slotChanged, capacityChanged, newSlotDate, appointmentDTO.getTimeSlot(), newServiceType);
+            throw e;
+        }
+        if (updated == 0) {
+            releaseRescheduleClaims(slotChanged, capacityChanged, newSlotDate, appointmentDTO.getTimeSlot(), newServiceType);
+            throw new ConflictException("The appointment was changed by someone else. Reload and try again");
         }
 
-        Appointment updatedAppointment = appointmentRepository.save(appointment);
+        // The repository call detached the entity, so these only update the copy returned to the caller
+        appointment.setAppointmentDate(appointmentDTO.getAppointmentDate());
+        appointment.setTimeSlot(appointmentDTO.getTimeSlot());
+        appointment.setServiceCategory(newServiceCategory);
+        appointment.setServiceType(newServiceType);
+        appointment.setAdditionalRequirements(newAdditionalRequirements);
+        appointment.setUpdatedAt(now);
+
+        eventPublisher.publishEvent(AppointmentEvent.from(AppointmentEvent.Type.RESCHEDULED, appointment)
+                .previousAppointmentDate(previousDate)
+                .previousTimeSlot(previousTimeSlot)
+                .previousServiceType(previousServiceType)
+                .build());
 
         // TODO: Add notification for admins about the appointment update
 
-        return updatedAppointment;
+        return appointment;
+    }
+
+    // Give back the slot and capacity claimed for a reschedule that did not happen
+    private void releaseRescheduleClaims(boolean slotChanged, boolean capacityChanged, LocalDate slotDate,
+                                         String timeSlot, String serviceType) {
+        if (slotChanged) {
+            slotReservationService.release(slotDate, timeSlot);
+        }
+        if (capacityChanged) {
+            serviceCapacityService.release(serviceType, slotDate);
+        }
     }
 }
 
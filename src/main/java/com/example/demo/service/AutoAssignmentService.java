@@ -0,0 +1,292 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AssignmentProposal;
+import com.example.demo.dto.AutoAssignmentResponse;
+import com.example.demo.event.AppointmentEvent;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.exception.ConflictException;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.model.Appointment;
+import com.example.demo.model.AppointmentStatus;
+import com.example.demo.repository.AppointmentRepository;
+import com.example.demo.repository.EmployeeServiceRepository;
+import com.example.demo.repository.ServiceRepository;
+import com.example.demo.repository.TeamMemberRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Proposes and applies employee assignments from skills (employee_services) and remaining daily
+ * capacity (working hours minus the estimated duration of appointments already assigned that day).
+ * Working hours are the employee's TeamMember.workingHoursPerDay, matched by phone number
+ * (users.phone_number = team_members.contact_no); assignment.daily-capacity-hours applies to
+ * employees without a matching team member.
+ *
+ * Per day, each service has a TreeSet of qualified employees ordered by remaining hours, so the
+ * best candidate is found in O(log n) and moving an employee after an assignment costs
+ * O(skills * log n). Day indexes are built with three queries and cached. Assignment and status
+ * events update a cached day in place (once committed); reschedules and skill changes drop it.
+ *
+ * Assignments made here are planned work: the assignee is set, the status stays as it is.
+ */
+@Service
+@RequiredArgsConstructor
+public class AutoAssignmentService {
+
+    private static final double DEFAULT_DURATION_HOURS = 1.0;
+    private static final long INDEX_TTL_MILLIS = 10 * 60 * 1000L;
+
+    private final AppointmentRepository appointmentRepository;
+    private final EmployeeServiceRepository employeeServiceRepository;
+    private final ServiceRepository serviceRepository;
+    private final TeamMemberRepository teamMemberRepository;
+    private final AppointmentService appointmentService;
+
+    private final Map<LocalDate, DayIndex> days = new ConcurrentHashMap<>();
+
+    // Working hours for employees with no team member record (or no hours on it)
+    @Value("${assignment.daily-capacity-hours:8}")
+    private double dailyCapacityHours;
+
+    /**
+     * Best employee for an appointment without assigning anyone
+     */
+    public AssignmentProposal propose(Long appointmentId) {
+        Appointment appointment = findAppointment(appointmentId);
+        return dayIndex(appointment.getAppointmentDate().toLocalDate()).propose(appointment);
+    }
+
+    /**
+     * Assign the best employee to an appointment
+     */
+    public AssignmentProposal apply(Long appointmentId) {
+        Appointment appointment = findAppointment(appointmentId);
+        AssignmentProposal proposal = dayIndex(appointment.getAppointmentDate().toLocalDate()).propose(appointment);
+        if (proposal.getEmployeeId() == null) {
+            throw new BadRequestException(proposal.getMessage());
+        }
+        appointmentService.planEmployeeAssignment(appointmentId, proposal.getEmployeeId());
+        return proposal;
+    }
+
+    /**
+     * Assign every unassigned CONFIRMED appointment of a day in one pass. Longest jobs are
+     * placed first, while capacity is still spread across employees.
+     */
+    public AutoAssignmentResponse assignDay(LocalDate date) {
+        DayIndex index = dayIndex(date);
+        List<Appointment> pending = appointmentRepository.findUnassignedBetween(
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay(), AppointmentStatus.CONFIRMED);
+        pending.sort(Comparator.comparingDouble((Appointment a) -> -index.hoursFor(a.getServiceType()))
+                .thenComparing(Appointment::getAppointmentDate)
+                .thenComparing(Appointment::getId));
+
+        List<AssignmentProposal> assignments = new ArrayList<>();
+        List<AssignmentProposal> unassigned = new ArrayList<>();
+        for (Appointment appointment : pending) {
+            AssignmentProposal proposal = index.propose(appointment);
+            if (proposal.getEmployeeId() == null) {
+                unassigned.add(proposal);
+                continue;
+            }
+            try {
+                appointmentService.planEmployeeAssignment(appointment.getId(), proposal.getEmployeeId());
+                // The ASSIGNED event already did this if the index is still cached; placing twice is a no-op
+                index.place(appointment.getId(), proposal.getEmployeeId(), appointment.getServiceType());
+                assignments.add(proposal);
+            } catch (BadRequestException | ConflictException | IllegalArgumentException e) {
+                proposal.setEmployeeId(null);
+                proposal.setEmployeeName(null);
+                proposal.setRemainingHours(null);
+                proposal.setMessage(e.getMessage());
+                unassigned.add(proposal);
+            }
+        }
+
+        return AutoAssignmentResponse.builder()
+                .date(date)
+                .requested(pending.size())
+                .assigned(assignments.size())
+                .assignments(assignments)
+                .unassigned(unassigned)
+                .build();
+    }
+
+    // Any change to an appointment can move load between employees on its day(s)
+    @EventListener
+    public void onAppointmentEvent(AppointmentEvent event) {
+        if (event.getAppointmentDate() == null) {
+            return;
+        }
+        if (event.getPreviousAppointmentDate() != null || event.getPreviousServiceType() != null) {
+            days.remove(event.getAppointmentDate().toLocalDate());
+            if (event.getPreviousAppointmentDate() != null) {
+                days.remove(event.getPreviousAppointmentDate().toLocalDate());
+            }
+            return;
+        }
+        // Same day and service: only who carries the hours can have changed
+        Long employeeId = event.getStatus() == AppointmentStatus.CANCELLED ? null : event.getEmployeeId();
+        Runnable place = () -> {
+            DayIndex index = days.get(event.getAppointmentDate().toLocalDate());
+            if (index != null) {
+                index.place(event.getAppointmentId(), employeeId, event.getServiceType());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    place.run();
+                }
+            });
+        } else {
+            place.run();
+        }
+    }
+
+    /**
+     * Drop all cached indexes, e.g. after an employee's services change
+     */
+    public void invalidate() {
+        days.clear();
+    }
+
+    private Appointment findAppointment(Long appointmentId) {
+        return appointmentRepository.findById(appointmentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Appointment not found with id: " + appointmentId));
+    }
+
+    private DayIndex dayIndex(LocalDate date) {
+        days.keySet().removeIf(day -> day.isBefore(LocalDate.now()));
+        DayIndex index = days.get(date);
+        if (index == null || System.currentTimeMillis() - index.builtAt > INDEX_TTL_MILLIS) {
+            index = buildIndex(date);
+            days.put(date, index);
+        }
+        return index;
+    }
+
+    private DayIndex buildIndex(LocalDate date) {
+        Map<String, Double> durations = new HashMap<>();
+        for (com.example.demo.model.Service service : serviceRepository.findAll()) {
+            durations.put(service.getServiceName(), service.getEstimatedDuration());
+        }
+        DayIndex index = new DayIndex(date, durations);
+
+        Map<Long, Double> workingHours = new HashMap<>();
+        for (Object[] row : teamMemberRepository.findWorkingHoursPerEmployee()) {
+            if (row[1] != null) {
+                workingHours.put((Long) row[0], ((Number) row[1]).doubleValue());
+            }
+        }
+        for (Object[] row : employeeServiceRepository.findActiveEmployeeSkills()) {
+            Long employeeId = (Long) row[0];
+            index.addSkill(employeeId, row[1] + " " + row[2], (String) row[3],
+                    workingHours.getOrDefault(employeeId, dailyCapacityHours));
+        }
+        for (Object[] row : appointmentRepository.findAssignmentsBetween(
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay())) {
+            index.place((Long) row[0], (Long) row[1], (String) row[2]);
+        }
+        return index;
+    }
+
+    private static final class DayIndex {
+        final long builtAt = System.currentTimeMillis();
+        final LocalDate date;
+        final Map<String, Double> durations;
+        final Map<Long, Double> remaining = new HashMap<>();
+        final Map<Long, String> names = new HashMap<>();
+        final Map<Long, List<String>> skillsByEmployee = new HashMap<>();
+        final Map<String, TreeSet<Long>> employeesBySkill = new HashMap<>();
+        final Map<Long, Placement> placements = new HashMap<>(); // Appointment id -> who carries its hours
+
+        // Most remaining hours first; ties by id so the order is total
+        final Comparator<Long> byRemaining = Comparator
+                .comparingDouble((Long id) -> -remaining.get(id))
+                .thenComparing(id -> id);
+
+        DayIndex(LocalDate date, Map<String, Double> durations) {
+            this.date = date;
+            this.durations = durations;
+        }
+
+        double hoursFor(String serviceType) {
+            Double hours = serviceType != null ? durations.get(serviceType) : null;
+            return hours != null ? hours : DEFAULT_DURATION_HOURS;
+        }
+
+        void addSkill(Long employeeId, String name, String serviceName, double capacity) {
+            remaining.putIfAbsent(employeeId, capacity);
+            names.putIfAbsent(employeeId, name);
+            skillsByEmployee.computeIfAbsent(employeeId, id -> new ArrayList<>()).add(serviceName);
+            employeesBySkill.computeIfAbsent(serviceName, s -> new TreeSet<>(byRemaining)).add(employeeId);
+        }
+
+        // Change an employee's remaining hours and re-position them in each of their skill sets
+        synchronized void adjust(Long employeeId, double deltaHours) {
+            Double current = remaining.get(employeeId);
+            if (current == null) {
+                return; // Inactive, or no skills: never a candidate
+            }
+            List<String> skills = skillsByEmployee.get(employeeId);
+            skills.forEach(skill -> employeesBySkill.get(skill).remove(employeeId));
+            remaining.put(employeeId, current + deltaHours);
+            skills.forEach(skill -> employeesBySkill.get(skill).add(employeeId));
+        }
+
+        // Record who carries an appointment's hours (null: nobody), moving them from any previous assignee
+        synchronized void place(Long appointmentId, Long employeeId, String serviceType) {
+            Placement previous = employeeId != null
+                    ? placements.put(appointmentId, new Placement(employeeId, hoursFor(serviceType)))
+                    : placements.remove(appointmentId);
+            if (previous != null) {
+                adjust(previous.employeeId(), previous.hours());
+            }
+            if (employeeId != null) {
+                adjust(employeeId, -hoursFor(serviceType));
+            }
+        }
+
+        synchronized AssignmentProposal propose(Appointment appointment) {
+            double hours = hoursFor(appointment.getServiceType());
+            AssignmentProposal.AssignmentProposalBuilder proposal = AssignmentProposal.builder()
+                    .appointmentId(appointment.getId())
+                    .serviceType(appointment.getServiceType())
+                    .estimatedHours(hours);
+
+            TreeSet<Long> candidates = employeesBySkill.get(appointment.getServiceType());
+            if (candidates == null || candidates.isEmpty()) {
+                return proposal.message("No active employee is assigned to service " +
+                        appointment.getServiceType()).build();
+            }
+            Long best = candidates.first();
+            double left = remaining.get(best);
+            if (left < hours) {
+                return proposal.message("No qualified employee has " + hours + " hours left on " + date).build();
+            }
+            return proposal.employeeId(best)
+                    .employeeName(names.get(best))
+                    .remainingHours(left - hours)
+                    .build();
+        }
+    }
+
+    private record Placement(Long employeeId, double hours) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.service;
+
+import com.example.demo.event.AppointmentEvent;
+import com.example.demo.repository.AppointmentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-date cache of booking counts by service type, filled by one GROUP BY query.
+ * Entries expire after a short TTL and are dropped when an appointment event changes the counts.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookingCountCache {
+
+    private final AppointmentRepository appointmentRepository;
+
+    @Value("${services.booking-counts.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private final ConcurrentHashMap<LocalDate, CachedCounts> countsByDate = new ConcurrentHashMap<>();
+
+    /**
+     * Bookings per service type (Appointment.serviceType) for the date
+     */
+    public Map<String, Long> getCounts(LocalDate date) {
+        CachedCounts cached = countsByDate.get(date);
+        if (cached != null && cached.expiresAt > System.nanoTime()) {
+            return cached.counts;
+        }
+
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : appointmentRepository.countAppointmentsPerServiceByDate(date)) {
+            if (row[0] != null) {
+                counts.put((String) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        Map<String, Long> snapshot = Map.copyOf(counts);
+        countsByDate.put(date, new CachedCounts(snapshot, System.nanoTime() + ttlSeconds * 1_000_000_000L));
+        return snapshot;
+    }
+
+    public long getCount(LocalDate date, String serviceType) {
+        return getCounts(date).getOrDefault(serviceType, 0L);
+    }
+
+    public void invalidate(LocalDate date) {
+        countsByDate.remove(date);
+    }
+
+    @EventListener
+    public void onAppointmentEvent(AppointmentEvent event) {
+        switch (event.getType()) {
+            case CREATED, CANCELLED, REJECTED, RESCHEDULED, STATUS_CHANGED -> {
+                invalidate(event.getAppointmentDate());
+                invalidate(event.getPreviousAppointmentDateOrCurrent());
+            }
+            default -> {
+                // Approvals and assignments keep the appointment counted
+            }
+        }
+    }
+
+    private void invalidate(LocalDateTime dateTime) {
+        if (dateTime != null) {
+            invalidate(dateTime.toLocalDate());
+        }
+    }
+
+    private record CachedCounts(Map<String, Long> counts, long expiresAt) {
+    }
+}
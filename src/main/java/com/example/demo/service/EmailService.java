@@ -8,6 +8,8 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class EmailService {
@@ -167,6 +169,61 @@ public class EmailService {
             e.printStackTrace();
         }
     }
-}
 
+    public void sendAppointmentReminderEmail(String toEmail, String customerName, String vehicleInfo,
+                                             String when, String timeSlot) {
+        try {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+            helper.setFrom(fromEmail);
+            helper.setTo(toEmail);
+            helper.setSubject("ASMS - Appointment Reminder");
+
+            String htmlContent = "<html><body>" +
+                    "<h2>Appointment Reminder</h2>" +
+                    "<p>Dear " + customerName + ",</p>" +
+                    "<p>This is a reminder that your appointment for <strong>" + vehicleInfo + "</strong> is " + when + ".</p>" +
+                    "<p><strong>Time slot:</strong> " + timeSlot + "</p>" +
+                    "<p>Best regards,<br/>ASMS Team</p>" +
+                    "</body></html>";
+
+            helper.setText(htmlContent, true);
+            mailSender.send(message);
+
+        } catch (MessagingException e) {
+            System.err.println("Failed to send appointment reminder email to: " + toEmail);
+            e.printStackTrace();
+        }
+    }
 
+    public void sendShiftScheduleEmail(String toEmail, String employeeName, List<String> appointmentLines) {
+        try {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+            helper.setFrom(fromEmail);
+            helper.setTo(toEmail);
+            helper.setSubject("ASMS - Your Appointments Today");
+
+            StringBuilder items = new StringBuilder();
+            for (String line : appointmentLines) {
+                items.append("<li>").append(line).append("</li>");
+            }
+            String htmlContent = "<html><body>" +
+                    "<h2>Today's Appointments</h2>" +
+                    "<p>Dear " + employeeName + ",</p>" +
+                    "<p>You have " + appointmentLines.size() + " appointment(s) assigned today:</p>" +
+                    "<ul>" + items + "</ul>" +
+                    "<p>Best regards,<br/>ASMS Team</p>" +
+                    "</body></html>";
+
+            helper.setText(htmlContent, true);
+            mailSender.send(message);
+
+        } catch (MessagingException e) {
+            System.err.println("Failed to send shift schedule email to: " + toEmail);
+            e.printStackTrace();
+        }
+    }
+}
@@ -22,6 +22,7 @@ public class EmployeeServiceService {
     private final ServiceRepository serviceRepository;
     private final EmployeeServiceRepository employeeServiceRepository;
     private final AppointmentService appointmentService;
+    private final AutoAssignmentService autoAssignmentService;
 
     /**
      * Get all services assigned to an employee (by username)
@@ -83,6 +84,7 @@ public class EmployeeServiceService {
                 .build();
 
         employeeServiceRepository.save(employeeService);
+        autoAssignmentService.invalidate();
     }
 
     /**
@@ -95,6 +97,7 @@ public class EmployeeServiceService {
                 .orElseThrow(() -> new RuntimeException("Service assignment not found"));
 
         employeeServiceRepository.delete(employeeService);
+        autoAssignmentService.invalidate();
     }
 
     /**
@@ -0,0 +1,161 @@
+package com.example.demo.service;
+
+import com.example.demo.model.IdempotencyRecord;
+import com.example.demo.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Storage behind the Idempotency-Key support: the idempotency_records table holds the first
+ * response for each (user, key) until it expires, and a bounded in-memory map in front of it
+ * answers retries without a database round trip.
+ *
+ * A request holds its key for a lease period; a key still IN_PROGRESS after that (the server
+ * restarted or crashed mid-request) is handed to the next request with the same key.
+ */
+@Service
+public class IdempotencyService {
+
+    public enum Outcome {
+        PROCEED,      // First time this key is seen - run the request
+        REPLAY,       // Completed before - send the stored response
+        IN_PROGRESS,  // The first request with this key is still running
+        MISMATCH      // The key was used for a different request
+    }
+
+    public record CachedResponse(String fingerprint, int status, String contentType, String body,
+                                 LocalDateTime expiresAt) {
+    }
+
+    public record Decision(Outcome outcome, CachedResponse response) {
+    }
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final TransactionTemplate requiresNewTransaction;
+    private final ConcurrentHashMap<String, CachedResponse> cache = new ConcurrentHashMap<>();
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${idempotency.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${idempotency.cache.max-entries:10000}")
+    private int maxCacheEntries;
+
+    public IdempotencyService(IdempotencyRecordRepository recordRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.recordRepository = recordRepository;
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Decide what to do with a request carrying an idempotency key. PROCEED means the caller now
+     * owns the key and must call complete() or abort().
+     */
+    public Decision begin(String scopedKey, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+
+        CachedResponse cached = cache.get(scopedKey);
+        if (cached != null && cached.expiresAt().isAfter(now)) {
+            return replayOrMismatch(cached, fingerprint);
+        }
+
+        Optional<IdempotencyRecord> existing = recordRepository.findByScopedKey(scopedKey);
+        if (existing.isPresent()) {
+            IdempotencyRecord record = existing.get();
+            if (record.getExpiresAt().isAfter(now)) {
+                if (!record.getFingerprint().equals(fingerprint)) {
+                    return new Decision(Outcome.MISMATCH, null);
+                }
+                if (record.getState() == IdempotencyRecord.State.IN_PROGRESS) {
+                    // Only one caller wins the conditional update when several retry at once
+                    boolean takenOver = recordRepository.takeOverStale(
+                            scopedKey, now, now.minusSeconds(leaseSeconds)) > 0;
+                    return new Decision(takenOver ? Outcome.PROCEED : Outcome.IN_PROGRESS, null);
+                }
+                CachedResponse response = toCachedResponse(record);
+                remember(scopedKey, response);
+                return new Decision(Outcome.REPLAY, response);
+            }
+            recordRepository.deleteByScopedKey(scopedKey); // Expired - the key can be used again
+        }
+
+        // Claim the key; the unique constraint decides between concurrent first attempts
+        IdempotencyRecord claim = IdempotencyRecord.builder()
+                .scopedKey(scopedKey)
+                .fingerprint(fingerprint)
+                .state(IdempotencyRecord.State.IN_PROGRESS)
+                .createdAt(now)
+                .startedAt(now)
+                .expiresAt(now.plusHours(ttlHours))
+                .build();
+        try {
+            requiresNewTransaction.executeWithoutResult(status -> recordRepository.saveAndFlush(claim));
+        } catch (DataIntegrityViolationException e) {
+            return new Decision(Outcome.IN_PROGRESS, null);
+        }
+        return new Decision(Outcome.PROCEED, null);
+    }
+
+    /**
+     * Store the response of a request that was allowed to proceed
+     */
+    public void complete(String scopedKey, String fingerprint, int status, String contentType, String body) {
+        if (status >= 500) {
+            abort(scopedKey); // Server errors are not cached so the client can retry
+            return;
+        }
+        recordRepository.findByScopedKey(scopedKey).ifPresent(record -> {
+            record.setState(IdempotencyRecord.State.COMPLETED);
+            record.setResponseStatus(status);
+            record.setContentType(contentType);
+            record.setResponseBody(body);
+            recordRepository.save(record);
+            remember(scopedKey, new CachedResponse(fingerprint, status, contentType, body, record.getExpiresAt()));
+        });
+    }
+
+    /**
+     * Release the key after a failed request
+     */
+    public void abort(String scopedKey) {
+        cache.remove(scopedKey);
+        recordRepository.deleteByScopedKey(scopedKey);
+    }
+
+    @Scheduled(fixedDelay = 3600000)
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        cache.values().removeIf(response -> !response.expiresAt().isAfter(now));
+        recordRepository.deleteExpired(now);
+    }
+
+    private Decision replayOrMismatch(CachedResponse cached, String fingerprint) {
+        return cached.fingerprint().equals(fingerprint)
+                ? new Decision(Outcome.REPLAY, cached)
+                : new Decision(Outcome.MISMATCH, null);
+    }
+
+    // The database stays authoritative; the memory cache just stops growing when full
+    private void remember(String scopedKey, CachedResponse response) {
+        if (cache.size() < maxCacheEntries || cache.containsKey(scopedKey)) {
+            cache.put(scopedKey, response);
+        }
+    }
+
+    private CachedResponse toCachedResponse(IdempotencyRecord record) {
+        return new CachedResponse(record.getFingerprint(), record.getResponseStatus(), record.getContentType(),
+                record.getResponseBody(), record.getExpiresAt());
+    }
+}
@@ -54,6 +54,21 @@ public class NotificationService {
         return notification;
     }
 
+    /**
+     * Save a batch of notifications in one go and push each one over WebSocket
+     */
+    @Transactional
+    public List<Notification> createAndSendNotifications(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return notifications;
+        }
+        List<Notification> saved = notificationRepository.saveAll(notifications);
+        for (Notification notification : saved) {
+            sendWebSocketNotification(notification.getRecipientId(), notification);
+        }
+        return saved;
+    }
+
     /**
      * Send WebSocket notification to a specific user
      */
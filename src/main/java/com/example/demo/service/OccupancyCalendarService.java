@@ -0,0 +1,260 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.OccupancyCalendarResponse;
+import com.example.demo.event.AppointmentEvent;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.model.AppointmentOccupancy;
+import com.example.demo.model.AppointmentStatus;
+import com.example.demo.repository.AppointmentOccupancyRepository;
+import com.example.demo.repository.AppointmentRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Occupancy calendar for admins: appointment counts per (date, time slot, service type, status).
+ *
+ * The appointment_occupancy summary table is updated from appointment events (one decrement of
+ * the old cell, one increment of the new one), so the calendar never reads the appointments
+ * table. Months are cached in memory for a few minutes and evicted once the transaction that
+ * changed them commits. The table is built from appointments when it is empty at startup and
+ * rebuilt nightly to repair any drift; a rebuild waits for in-flight event updates to finish and
+ * holds new ones back until it has committed, so none are lost or counted twice.
+ */
+@Service
+public class OccupancyCalendarService {
+
+    private static final int MAX_RANGE_DAYS = 62;
+    private static final int MAX_CACHED_MONTHS = 24;
+    private static final long MONTH_TTL_MILLIS = 5 * 60 * 1000L;
+
+    private record Cell(LocalDate date, String timeSlot, String serviceType, AppointmentStatus status) {
+    }
+
+    private record CachedMonth(List<AppointmentOccupancy> rows, long loadedAt) {
+    }
+
+    private final AppointmentOccupancyRepository occupancyRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate requiresNewTransaction;
+    private final Map<YearMonth, CachedMonth> months = new ConcurrentHashMap<>();
+    // Event updates share the read lock until their transaction completes; rebuild() takes the write lock
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    public OccupancyCalendarService(AppointmentOccupancyRepository occupancyRepository,
+                                    AppointmentRepository appointmentRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.occupancyRepository = occupancyRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public OccupancyCalendarResponse getMonth(YearMonth month) {
+        return getRange(month.atDay(1), month.plusMonths(1).atDay(1));
+    }
+
+    public OccupancyCalendarResponse getWeek(LocalDate start) {
+        return getRange(start, start.plusDays(7));
+    }
+
+    /**
+     * Occupancy for [from, to), at most two months
+     */
+    public OccupancyCalendarResponse getRange(LocalDate from, LocalDate to) {
+        if (!to.isAfter(from) || ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new BadRequestException("Calendar range must be 1-" + MAX_RANGE_DAYS + " days");
+        }
+
+        Map<LocalDate, OccupancyCalendarResponse.Day> days = new LinkedHashMap<>();
+        long total = 0;
+        for (YearMonth month = YearMonth.from(from); !month.atDay(1).isAfter(to.minusDays(1)); month = month.plusMonths(1)) {
+            for (AppointmentOccupancy row : loadMonth(month)) {
+                if (row.getOccupancyDate().isBefore(from) || !row.getOccupancyDate().isBefore(to)) {
+                    continue;
+                }
+                OccupancyCalendarResponse.Day day = days.computeIfAbsent(row.getOccupancyDate(),
+                        date -> OccupancyCalendarResponse.Day.builder().date(date).cells(new ArrayList<>()).build());
+                day.getCells().add(OccupancyCalendarResponse.Cell.builder()
+                        .timeSlot(row.getTimeSlot())
+                        .serviceType(row.getServiceType().isEmpty() ? null : row.getServiceType())
+                        .status(row.getStatus().name())
+                        .count(row.getAppointmentCount())
+                        .build());
+                if (row.getStatus() != AppointmentStatus.CANCELLED) {
+                    day.setTotal(day.getTotal() + row.getAppointmentCount());
+                    total += row.getAppointmentCount();
+                }
+            }
+        }
+
+        return OccupancyCalendarResponse.builder()
+                .from(from)
+                .to(to)
+                .total(total)
+                .days(new ArrayList<>(days.values()))
+                .build();
+    }
+
+    @EventListener
+    public void onAppointmentEvent(AppointmentEvent event) {
+        if (event.getAppointmentDate() == null || event.getStatus() == null) {
+            return;
+        }
+        Cell current = cell(event.getAppointmentDate(), event.getTimeSlot(), event.getServiceType(), event.getStatus());
+        Cell previous = event.getType() == AppointmentEvent.Type.CREATED ? null
+                : cell(event.getPreviousAppointmentDateOrCurrent(), event.getPreviousTimeSlotOrCurrent(),
+                        event.getPreviousServiceTypeOrCurrent(), event.getPreviousStatusOrCurrent());
+        if (current.equals(previous)) {
+            return;
+        }
+
+        rebuildLock.readLock().lock();
+        boolean releaseAfterTransaction = false;
+        try {
+            if (previous != null) {
+                occupancyRepository.decrement(previous.date(), previous.timeSlot(), previous.serviceType(), previous.status());
+            }
+            increment(current);
+            releaseAfterTransaction = evictAfterCommit(previous, current);
+        } finally {
+            if (!releaseAfterTransaction) {
+                rebuildLock.readLock().unlock();
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIfEmpty() {
+        if (occupancyRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recount the summary table from the appointments table
+     */
+    @Scheduled(cron = "0 45 2 * * ?")
+    public void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            recount();
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private void recount() {
+        Map<Cell, Integer> counts = new HashMap<>();
+        for (Object[] row : appointmentRepository.countPerDateSlotServiceAndStatus()) {
+            Cell cell = cell((LocalDateTime) row[0], (String) row[1], (String) row[2], (AppointmentStatus) row[3]);
+            counts.merge(cell, ((Long) row[4]).intValue(), Integer::sum);
+        }
+        List<AppointmentOccupancy> rows = new ArrayList<>(counts.size());
+        counts.forEach((cell, count) -> rows.add(AppointmentOccupancy.builder()
+                .occupancyDate(cell.date())
+                .timeSlot(cell.timeSlot())
+                .serviceType(cell.serviceType())
+                .status(cell.status())
+                .appointmentCount(count)
+                .build()));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            occupancyRepository.deleteAllInBatch();
+            occupancyRepository.saveAll(rows);
+        });
+        months.clear();
+    }
+
+    private List<AppointmentOccupancy> loadMonth(YearMonth month) {
+        CachedMonth cached = months.get(month);
+        if (cached != null && System.currentTimeMillis() - cached.loadedAt() <= MONTH_TTL_MILLIS) {
+            return cached.rows();
+        }
+        long loadedAt = System.currentTimeMillis();
+        List<AppointmentOccupancy> rows = List.copyOf(
+                occupancyRepository.findBetween(month.atDay(1), month.plusMonths(1).atDay(1)));
+        if (months.size() >= MAX_CACHED_MONTHS) {
+            months.clear();
+        }
+        months.put(month, new CachedMonth(rows, loadedAt));
+        return rows;
+    }
+
+    /**
+     * Evict the months of both cells once the counts are committed, and keep the read lock until
+     * the transaction completes. Returns false when there is no transaction: evicted right away,
+     * and the caller releases the lock.
+     */
+    private boolean evictAfterCommit(Cell previous, Cell current) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(previous, current);
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(previous, current);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                rebuildLock.readLock().unlock();
+            }
+        });
+        return true;
+    }
+
+    private void evict(Cell previous, Cell current) {
+        if (previous != null) {
+            months.remove(YearMonth.from(previous.date()));
+        }
+        months.remove(YearMonth.from(current.date()));
+    }
+
+    // Increment a cell, creating its row the first time it is used
+    private void increment(Cell cell) {
+        if (occupancyRepository.increment(cell.date(), cell.timeSlot(), cell.serviceType(), cell.status()) > 0) {
+            return;
+        }
+        AppointmentOccupancy row = AppointmentOccupancy.builder()
+                .occupancyDate(cell.date())
+                .timeSlot(cell.timeSlot())
+                .serviceType(cell.serviceType())
+                .status(cell.status())
+                .appointmentCount(0)
+                .build();
+        try {
+            requiresNewTransaction.executeWithoutResult(status -> occupancyRepository.saveAndFlush(row));
+        } catch (DataIntegrityViolationException e) {
+            // Created by a concurrent event
+        }
+        occupancyRepository.increment(cell.date(), cell.timeSlot(), cell.serviceType(), cell.status());
+    }
+
+    private Cell cell(LocalDateTime date, String timeSlot, String serviceType, AppointmentStatus status) {
+        return new Cell(date.toLocalDate(), Objects.toString(timeSlot, ""), Objects.toString(serviceType, ""), status);
+    }
+}
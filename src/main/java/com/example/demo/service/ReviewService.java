@@ -1,6 +1,7 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.ReviewDTO;
+import com.example.demo.dto.ReviewPageResponse;
 import com.example.demo.model.Review;
 import com.example.demo.model.Appointment;
 import com.example.demo.model.AppointmentStatus;
@@ -9,17 +10,19 @@ import com.example.demo.repository.ReviewRepository;
 import com.example.demo.repository.AppointmentRepository;
 import com.example.demo.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.ResponseEntity;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ReviewService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ReviewRepository reviewRepository;
     private final UserRepository userRepository;
     private final AppointmentRepository appointmentRepository;
@@ -54,17 +57,42 @@ public class ReviewService {
     }
     
     public List<ReviewDTO> getAllReviews() {
-        List<Review> reviews = reviewRepository.findAllOrderByCreatedAtDesc();
-        return reviews.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return reviewRepository.findAllDtosOrderByCreatedAtDesc();
+    }
+
+    // Reviews wall: newest first, keyset pagination on (createdAt, id)
+    public ReviewPageResponse getReviewPage(LocalDateTime cursorCreatedAt, Long cursorId, Integer size) {
+        int pageSize = size == null ? 20 : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        // A cursor is only meaningful as a (createdAt, id) pair
+        LocalDateTime cursorDate = cursorId != null ? cursorCreatedAt : null;
+        Long cursor = cursorDate != null ? cursorId : null;
+
+        // Fetch one extra row to know whether another page exists
+        List<ReviewDTO> rows = reviewRepository.findDtoPageOrderByCreatedAtDesc(cursorDate, cursor,
+                PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        ReviewDTO last = hasMore ? rows.get(rows.size() - 1) : null;
+        return ReviewPageResponse.builder()
+                .reviews(rows)
+                .hasMore(hasMore)
+                .nextCursorCreatedAt(last != null ? last.getCreatedAt() : null)
+                .nextCursorId(last != null ? last.getId() : null)
+                .build();
     }
     
     public List<ReviewDTO> getReviewsByUser(Long userId) {
-        List<Review> reviews = reviewRepository.findByUserId(userId);
-        return reviews.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return reviewRepository.findDtosByUserId(userId);
+    }
+
+    public List<ReviewDTO> getReviewsByUsername(String username) {
+        return userRepository.findIdByUsername(username)
+                .map(reviewRepository::findDtosByUserId)
+                .orElse(List.of());
     }
 
     public Review updateReview(Long id, int rating, String comment, String username) {
@@ -96,18 +124,4 @@ public class ReviewService {
         
         reviewRepository.deleteById(id);
     }
-    
-    private ReviewDTO convertToDTO(Review review) {
-        User user = userRepository.findById(review.getUserId()).orElse(null);
-        
-        return ReviewDTO.builder()
-                .id(review.getId())
-                .rating(review.getRating())
-                .comment(review.getComment())
-                .appointmentId(review.getAppointmentId())
-                .username(user != null ? user.getUsername() : "Anonymous")
-                .createdAt(review.getCreatedAt())
-                .updatedAt(review.getUpdatedAt())
-                .build();
-    }
 }
@@ -0,0 +1,160 @@
+package com.example.demo.service;
+
+import com.example.demo.event.AppointmentEvent;
+import com.example.demo.model.AppointmentStatus;
+import com.example.demo.model.ServiceDailyCapacity;
+import com.example.demo.repository.AppointmentRepository;
+import com.example.demo.repository.ServiceDailyCapacityRepository;
+import com.example.demo.repository.ServiceRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Daily booking capacity per service, kept in the service_daily_capacity ledger.
+ *
+ * A ledger row is opened the first time a (service, date) is booked, seeded with the bookings
+ * that already exist for it. From then on every booking is a single conditional
+ * UPDATE ... SET used_slots = used_slots + 1 WHERE used_slots < max_slots, which is safe under
+ * concurrency and works for any date, so there is nothing to reset at midnight.
+ */
+@Service
+public class ServiceCapacityService {
+
+    private final ServiceDailyCapacityRepository capacityRepository;
+    private final ServiceRepository serviceRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final TransactionTemplate requiresNewTransaction;
+
+    public ServiceCapacityService(ServiceDailyCapacityRepository capacityRepository,
+                                  ServiceRepository serviceRepository,
+                                  AppointmentRepository appointmentRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.capacityRepository = capacityRepository;
+        this.serviceRepository = serviceRepository;
+        this.appointmentRepository = appointmentRepository;
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Claim one slot of the service's capacity on the date. Returns false when the day is full.
+     * Service types that are not in the catalog have no capacity limit.
+     */
+    public boolean tryReserve(String serviceType, LocalDate date) {
+        Optional<com.example.demo.model.Service> service = findService(serviceType);
+        if (service.isEmpty()) {
+            return true;
+        }
+        Long serviceId = service.get().getId();
+
+        if (capacityRepository.tryIncrement(serviceId, date) > 0) {
+            return true;
+        }
+        if (capacityRepository.existsByServiceIdAndSlotDate(serviceId, date)) {
+            return false;
+        }
+        openLedger(service.get(), date);
+        return capacityRepository.tryIncrement(serviceId, date) > 0;
+    }
+
+    /**
+     * Whether the service can still take a booking on the date, without claiming anything
+     */
+    public boolean hasCapacity(String serviceType, LocalDate date) {
+        Optional<com.example.demo.model.Service> service = findService(serviceType);
+        if (service.isEmpty()) {
+            return true;
+        }
+        Optional<ServiceDailyCapacity> ledger = capacityRepository.findByServiceIdAndSlotDate(service.get().getId(), date);
+        if (ledger.isPresent()) {
+            return ledger.get().getUsedSlots() < ledger.get().getMaxSlots();
+        }
+        Integer maxSlots = service.get().getMaxDailySlots();
+        Long existingBookings = appointmentRepository.countAppointmentsByServiceAndDate(serviceType, date);
+        return maxSlots == null || existingBookings == null || existingBookings < maxSlots;
+    }
+
+    /**
+     * Give back a slot claimed with tryReserve
+     */
+    public void release(String serviceType, LocalDate date) {
+        findService(serviceType).ifPresent(service -> capacityRepository.decrement(service.getId(), date));
+    }
+
+    /**
+     * Apply a changed daily limit to today's and future ledger rows
+     */
+    public void updateMaxSlots(Long serviceId, int maxSlots) {
+        capacityRepository.updateMaxSlotsFrom(serviceId, maxSlots, LocalDate.now());
+    }
+
+    public void deleteLedger(Long serviceId) {
+        capacityRepository.deleteByServiceId(serviceId);
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE) // Release before the waitlist tries to reuse it
+    public void onAppointmentEvent(AppointmentEvent event) {
+        if (event.getType() == AppointmentEvent.Type.CREATED || event.getStatus() == null) {
+            return; // New bookings claim capacity before the appointment is saved
+        }
+
+        AppointmentStatus previousStatus = event.getPreviousStatusOrCurrent();
+        LocalDateTime previousDate = event.getPreviousAppointmentDateOrCurrent();
+        String previousServiceType = event.getPreviousServiceTypeOrCurrent();
+        boolean moved = !sameDay(previousDate, event.getAppointmentDate())
+                || !Objects.equals(previousServiceType, event.getServiceType());
+
+        // Return the old capacity when the appointment is cancelled or moved to another day/service
+        if (previousStatus.holdsSlot() && previousDate != null
+                && (!event.getStatus().holdsSlot() || moved)) {
+            release(previousServiceType, previousDate.toLocalDate());
+        }
+        // A reinstated appointment takes its capacity back even if the day has filled up since
+        if (!previousStatus.holdsSlot() && event.getStatus().holdsSlot() && event.getAppointmentDate() != null) {
+            findService(event.getServiceType()).ifPresent(service ->
+                    capacityRepository.forceIncrement(service.getId(), event.getAppointmentDate().toLocalDate()));
+        }
+    }
+
+    // Create the ledger row for a (service, date), counting the bookings that already exist
+    private void openLedger(com.example.demo.model.Service service, LocalDate date) {
+        Long existingBookings = appointmentRepository.countAppointmentsByServiceAndDate(service.getServiceName(), date);
+        ServiceDailyCapacity ledger = ServiceDailyCapacity.builder()
+                .serviceId(service.getId())
+                .slotDate(date)
+                .usedSlots(existingBookings != null ? existingBookings.intValue() : 0)
+                .maxSlots(service.getMaxDailySlots())
+                .build();
+        try {
+            requiresNewTransaction.executeWithoutResult(status -> capacityRepository.saveAndFlush(ledger));
+        } catch (DataIntegrityViolationException e) {
+            // Another booking opened the row first
+        }
+    }
+
+    private Optional<com.example.demo.model.Service> findService(String serviceType) {
+        if (serviceType == null || serviceType.isBlank()) {
+            return Optional.empty();
+        }
+        return serviceRepository.findFirstByServiceName(serviceType);
+    }
+
+    private boolean sameDay(LocalDateTime a, LocalDateTime b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.toLocalDate().equals(b.toLocalDate());
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ServiceResponse;
+import com.example.demo.repository.ServiceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory service catalog. The services table is read into an immutable snapshot once and
+ * the snapshot is replaced after every committed catalog change made through
+ * ServiceManagementService, so reads never query the services table.
+ *
+ * The rendered list (catalog plus today's booking counts from BookingCountCache) is kept with a
+ * strong ETag derived from its content; it is only rebuilt when the snapshot or the counts change.
+ */
+@Service
+@RequiredArgsConstructor
+public class ServiceCatalogService {
+
+    public record Entry(Long id, String serviceName, String category, String description, Double estimatedDuration,
+                        BigDecimal basePrice, String requiredSkills, String priority, Integer maxDailySlots,
+                        String serviceImage, Boolean isActive, String additionalNotes,
+                        LocalDateTime createdAt, LocalDateTime updatedAt) {
+    }
+
+    public record Snapshot(List<Entry> entries, Map<Long, Entry> byId, String contentHash) {
+    }
+
+    public record View(List<ServiceResponse> services, String etag) {
+    }
+
+    private record RenderedView(Snapshot snapshot, LocalDate date, Map<String, Long> counts, View view) {
+    }
+
+    private final ServiceRepository serviceRepository;
+    private final BookingCountCache bookingCountCache;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicReference<RenderedView> rendered = new AtomicReference<>();
+
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot.get();
+        return current != null ? current : reload();
+    }
+
+    /**
+     * All services with today's availability, and the ETag for exactly this content
+     */
+    public View getView() {
+        Snapshot current = getSnapshot();
+        LocalDate today = LocalDate.now();
+        Map<String, Long> counts = bookingCountCache.getCounts(today);
+
+        RenderedView last = rendered.get();
+        if (last != null && last.snapshot() == current && last.date().equals(today) && last.counts() == counts) {
+            return last.view();
+        }
+
+        List<ServiceResponse> services = new ArrayList<>(current.entries().size());
+        StringBuilder availability = new StringBuilder(current.contentHash()).append('|').append(today);
+        for (Entry entry : current.entries()) {
+            long todayBookings = counts.getOrDefault(entry.serviceName(), 0L);
+            services.add(toResponse(entry, todayBookings));
+            availability.append('|').append(todayBookings);
+        }
+        View view = new View(List.copyOf(services), "\"" + sha256(availability.toString()).substring(0, 32) + "\"");
+        rendered.set(new RenderedView(current, today, counts, view));
+        return view;
+    }
+
+    public Optional<ServiceResponse> findById(Long id) {
+        Entry entry = getSnapshot().byId().get(id);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        return Optional.of(toResponse(entry, bookingCountCache.getCount(LocalDate.now(), entry.serviceName())));
+    }
+
+    /**
+     * Replace the snapshot once the current transaction commits (immediately if there is none)
+     */
+    public void catalogChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload();
+                }
+            });
+        } else {
+            reload();
+        }
+    }
+
+    // Serialized so a slower, older load cannot overwrite a newer snapshot
+    private synchronized Snapshot reload() {
+        List<Entry> entries = new ArrayList<>();
+        for (com.example.demo.model.Service service : serviceRepository.findAll()) {
+            entries.add(new Entry(service.getId(), service.getServiceName(), service.getCategory(),
+                    service.getDescription(), service.getEstimatedDuration(), service.getBasePrice(),
+                    service.getRequiredSkills(), service.getPriority(), service.getMaxDailySlots(),
+                    service.getServiceImage(), service.getIsActive(), service.getAdditionalNotes(),
+                    service.getCreatedAt(), service.getUpdatedAt()));
+        }
+        entries.sort(Comparator.comparing(Entry::id));
+
+        Map<Long, Entry> byId = new LinkedHashMap<>();
+        StringBuilder content = new StringBuilder();
+        for (Entry entry : entries) {
+            byId.put(entry.id(), entry);
+            content.append(entry).append('\n');
+        }
+        Snapshot loaded = new Snapshot(List.copyOf(entries), Map.copyOf(byId), sha256(content.toString()));
+        snapshot.set(loaded);
+        return loaded;
+    }
+
+    private ServiceResponse toResponse(Entry entry, long todayBookingsCount) {
+        // todayBookingsCount: today's bookings for this service (excluding cancelled/rejected)
+        int todayBookings = (int) todayBookingsCount;
+        int remainingSlots = entry.maxDailySlots() - todayBookings;
+        boolean availableToday = entry.isActive() && remainingSlots > 0;
+
+        return ServiceResponse.builder()
+                .id(entry.id())
+                .serviceName(entry.serviceName())
+                .category(entry.category())
+                .description(entry.description())
+                .estimatedDuration(entry.estimatedDuration())
+                .basePrice(entry.basePrice())
+                .requiredSkills(entry.requiredSkills())
+                .priority(entry.priority())
+                .maxDailySlots(entry.maxDailySlots())
+                .availableSlots(Math.max(0, remainingSlots))
+                .serviceImage(entry.serviceImage())
+                .isActive(entry.isActive())
+                .additionalNotes(entry.additionalNotes())
+                .createdAt(entry.createdAt())
+                .updatedAt(entry.updatedAt())
+                .todayBookings(todayBookings)
+                .remainingSlots(Math.max(0, remainingSlots))
+                .availableToday(availableToday)
+                .build();
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -4,22 +4,19 @@ import com.example.demo.dto.ApiResponse;
 import com.example.demo.dto.ServiceRequest;
 import com.example.demo.dto.ServiceResponse;
 import com.example.demo.exception.ResourceNotFoundException;
-import com.example.demo.repository.AppointmentRepository;
 import com.example.demo.repository.ServiceRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @org.springframework.stereotype.Service
 @RequiredArgsConstructor
 public class ServiceManagementService {
 
     private final ServiceRepository serviceRepository;
-    private final AppointmentRepository appointmentRepository;
+    private final ServiceCapacityService serviceCapacityService;
+    private final ServiceCatalogService serviceCatalogService;
 
     @Transactional
     public ApiResponse createService(ServiceRequest request) {
@@ -39,6 +36,7 @@ public class ServiceManagementService {
                 .build();
 
         serviceRepository.save(service);
+        serviceCatalogService.catalogChanged();
 
         return ApiResponse.builder()
                 .success(true)
@@ -46,19 +44,14 @@ public class ServiceManagementService {
                 .build();
     }
 
-    @Transactional(readOnly = true)
+    // Served from the in-memory catalog snapshot
     public List<ServiceResponse> getAllServices() {
-        LocalDate today = LocalDate.now();
-        return serviceRepository.findAll().stream()
-                .map(service -> mapToResponse(service, today))
-                .collect(Collectors.toList());
+        return serviceCatalogService.getView().services();
     }
 
-    @Transactional(readOnly = true)
     public ServiceResponse getServiceById(Long id) {
-        com.example.demo.model.Service service = serviceRepository.findById(id)
+        return serviceCatalogService.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Service not found"));
-        return mapToResponse(service, LocalDate.now());
     }
 
     @Transactional
@@ -78,6 +71,8 @@ public class ServiceManagementService {
         service.setAdditionalNotes(request.getAdditionalNotes());
 
         serviceRepository.save(service);
+        serviceCapacityService.updateMaxSlots(id, request.getMaxDailySlots());
+        serviceCatalogService.catalogChanged();
 
         return ApiResponse.builder()
                 .success(true)
@@ -91,8 +86,8 @@ public class ServiceManagementService {
                 .orElseThrow(() -> new ResourceNotFoundException("Service not found"));
 
         service.setIsActive(true);
-        service.setAvailableSlots(service.getMaxDailySlots());
         serviceRepository.save(service);
+        serviceCatalogService.catalogChanged();
 
         return ApiResponse.builder()
                 .success(true)
@@ -107,6 +102,7 @@ public class ServiceManagementService {
 
         service.setIsActive(false);
         serviceRepository.save(service);
+        serviceCatalogService.catalogChanged();
 
         return ApiResponse.builder()
                 .success(true)
@@ -120,72 +116,12 @@ public class ServiceManagementService {
             throw new ResourceNotFoundException("Service not found");
         }
         serviceRepository.deleteById(id);
+        serviceCapacityService.deleteLedger(id);
+        serviceCatalogService.catalogChanged();
 
         return ApiResponse.builder()
                 .success(true)
                 .message("Service deleted successfully")
                 .build();
     }
-
-    // Reset available slots daily at midnight
-    @Scheduled(cron = "0 0 0 * * ?")
-    @Transactional
-    public void resetDailySlots() {
-        List<com.example.demo.model.Service> services = serviceRepository.findAll();
-        for (com.example.demo.model.Service service : services) {
-            service.setAvailableSlots(service.getMaxDailySlots());
-            // Auto-activate if was deactivated due to slots
-            if (!service.getIsActive() && service.getAvailableSlots() > 0) {
-                service.setIsActive(true);
-            }
-        }
-        serviceRepository.saveAll(services);
-    }
-
-    // Auto-deactivate when slots are full
-    @Transactional
-    public void checkAndDeactivateIfFull(Long serviceId) {
-        com.example.demo.model.Service service = serviceRepository.findById(serviceId)
-                .orElseThrow(() -> new ResourceNotFoundException("Service not found"));
-
-        if (service.getAvailableSlots() <= 0) {
-            service.setIsActive(false);
-            serviceRepository.save(service);
-        }
-    }
-
-    private ServiceResponse mapToResponse(com.example.demo.model.Service service) {
-        return mapToResponse(service, LocalDate.now());
-    }
-
-    private ServiceResponse mapToResponse(com.example.demo.model.Service service, LocalDate date) {
-        // Count today's bookings for this service (excluding cancelled/rejected)
-        Long todayBookingsCount = appointmentRepository.countAppointmentsByServiceAndDate(
-                service.getServiceName(), date);
-        
-        int todayBookings = todayBookingsCount != null ? todayBookingsCount.intValue() : 0;
-        int remainingSlots = service.getMaxDailySlots() - todayBookings;
-        boolean availableToday = service.getIsActive() && remainingSlots > 0;
-        
-        return ServiceResponse.builder()
-                .id(service.getId())
-                .serviceName(service.getServiceName())
-                .category(service.getCategory())
-                .description(service.getDescription())
-                .estimatedDuration(service.getEstimatedDuration())
-                .basePrice(service.getBasePrice())
-                .requiredSkills(service.getRequiredSkills())
-                .priority(service.getPriority())
-                .maxDailySlots(service.getMaxDailySlots())
-                .availableSlots(service.getAvailableSlots())
-                .serviceImage(service.getServiceImage())
-                .isActive(service.getIsActive())
-                .additionalNotes(service.getAdditionalNotes())
-                .createdAt(service.getCreatedAt())
-                .updatedAt(service.getUpdatedAt())
-                .todayBookings(todayBookings)
-                .remainingSlots(Math.max(0, remainingSlots))
-                .availableToday(availableToday)
-                .build();
-    }
 }
@@ -0,0 +1,278 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ServiceResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Ranked search over the service catalog, served from an in-memory inverted index over service
+ * name, category, required skills and description.
+ *
+ * Query terms match exactly, as a prefix of an indexed term ("brak" finds "brakes") and within
+ * one or two typos ("engnie" finds "engine"), with lower weights for the looser matches. Results
+ * are ranked by how many query terms they match, then by BM25 with per-field weights.
+ *
+ * The index follows ServiceCatalogService: when the catalog snapshot has been replaced, only
+ * the services that were added, changed or removed are re-indexed.
+ */
+@Service
+@RequiredArgsConstructor
+public class ServiceSearchService {
+
+    private static final int MAX_LIMIT = 50;
+    private static final int MAX_PREFIX_EXPANSIONS = 20;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_WEIGHT = 0.8;
+    private static final double TYPO_WEIGHT = 0.6;
+    private static final double TWO_TYPO_WEIGHT = 0.4;
+
+    // Field weights: a match in the name counts three description matches
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float CATEGORY_WEIGHT = 2.0f;
+    private static final float SKILLS_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private record Match(long serviceId, int terms, double score) {
+    }
+
+    private final ServiceCatalogService serviceCatalogService;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<Long, Float>> postings = new HashMap<>(); // term -> service id -> weighted tf
+    private final NavigableSet<String> terms = new TreeSet<>();
+    private final Map<Long, Float> documentLengths = new HashMap<>();
+    private final Map<Long, ServiceCatalogService.Entry> indexed = new HashMap<>();
+    private double totalLength;
+    private volatile ServiceCatalogService.Snapshot indexedSnapshot;
+
+    /**
+     * Active services matching the query, best first
+     */
+    public List<ServiceResponse> search(String query, int limit) {
+        List<String> queryTerms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        ServiceCatalogService.Snapshot snapshot = serviceCatalogService.getSnapshot();
+        sync(snapshot);
+
+        List<Match> matches;
+        lock.readLock().lock();
+        try {
+            matches = rank(queryTerms);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<Long, ServiceResponse> responses = serviceCatalogService.getView().services().stream()
+                .collect(Collectors.toMap(ServiceResponse::getId, Function.identity()));
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        List<ServiceResponse> results = new ArrayList<>(Math.min(pageSize, matches.size()));
+        for (Match match : matches) {
+            ServiceResponse service = responses.get(match.serviceId());
+            if (service != null && Boolean.TRUE.equals(service.getIsActive())) {
+                results.add(service);
+                if (results.size() == pageSize) {
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+
+    private List<Match> rank(List<String> queryTerms) {
+        int documents = documentLengths.size();
+        if (documents == 0) {
+            return List.of();
+        }
+        double averageLength = totalLength / documents;
+
+        Map<Long, Double> scores = new HashMap<>();
+        Map<Long, Integer> matchedTerms = new HashMap<>();
+        for (String queryTerm : queryTerms) {
+            // Best expansion per service, so a term counts once however many forms match it
+            Map<Long, Double> termScores = new HashMap<>();
+            expand(queryTerm).forEach((term, weight) -> {
+                Map<Long, Float> posting = postings.get(term);
+                double idf = Math.log(1 + (documents - posting.size() + 0.5) / (posting.size() + 0.5));
+                posting.forEach((serviceId, tf) -> {
+                    double norm = tf * (K1 + 1)
+                            / (tf + K1 * (1 - B + B * documentLengths.get(serviceId) / averageLength));
+                    termScores.merge(serviceId, weight * idf * norm, Math::max);
+                });
+            });
+            termScores.forEach((serviceId, score) -> {
+                scores.merge(serviceId, score, Double::sum);
+                matchedTerms.merge(serviceId, 1, Integer::sum);
+            });
+        }
+
+        List<Match> matches = new ArrayList<>(scores.size());
+        scores.forEach((serviceId, score) -> matches.add(new Match(serviceId, matchedTerms.get(serviceId), score)));
+        matches.sort(Comparator.comparingInt(Match::terms).reversed()
+                .thenComparing(Comparator.comparingDouble(Match::score).reversed())
+                .thenComparingLong(Match::serviceId));
+        return matches;
+    }
+
+    // Indexed terms a query term stands for, with the weight of each kind of match
+    private Map<String, Double> expand(String queryTerm) {
+        Map<String, Double> expansions = new HashMap<>();
+        if (postings.containsKey(queryTerm)) {
+            expansions.put(queryTerm, 1.0);
+        }
+        if (queryTerm.length() >= 2) {
+            int added = 0;
+            for (String term : terms.subSet(queryTerm, false, queryTerm + Character.MAX_VALUE, false)) {
+                expansions.putIfAbsent(term, PREFIX_WEIGHT);
+                if (++added == MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+            }
+        }
+        // Typos are only considered when the word itself is not in the index
+        if (expansions.isEmpty() && queryTerm.length() >= 4) {
+            int maxEdits = queryTerm.length() >= 8 ? 2 : 1;
+            for (String term : terms) {
+                if (Math.abs(term.length() - queryTerm.length()) <= maxEdits) {
+                    int distance = editDistance(queryTerm, term, maxEdits);
+                    if (distance <= maxEdits) {
+                        expansions.put(term, distance == 1 ? TYPO_WEIGHT : TWO_TYPO_WEIGHT);
+                    }
+                }
+            }
+        }
+        return expansions;
+    }
+
+    // Bring the index in line with the catalog snapshot, touching only the services that differ
+    private void sync(ServiceCatalogService.Snapshot snapshot) {
+        if (snapshot == indexedSnapshot) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (snapshot == indexedSnapshot) {
+                return;
+            }
+            Set<Long> removed = new HashSet<>(indexed.keySet());
+            for (ServiceCatalogService.Entry entry : snapshot.entries()) {
+                removed.remove(entry.id());
+                ServiceCatalogService.Entry previous = indexed.get(entry.id());
+                if (!entry.equals(previous)) {
+                    if (previous != null) {
+                        remove(previous.id());
+                    }
+                    add(entry);
+                }
+            }
+            removed.forEach(this::remove);
+            indexedSnapshot = snapshot;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(ServiceCatalogService.Entry entry) {
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = 0;
+        length += addField(frequencies, entry.serviceName(), NAME_WEIGHT);
+        length += addField(frequencies, entry.category(), CATEGORY_WEIGHT);
+        length += addField(frequencies, entry.requiredSkills(), SKILLS_WEIGHT);
+        length += addField(frequencies, entry.description(), DESCRIPTION_WEIGHT);
+
+        frequencies.forEach((term, tf) -> {
+            postings.computeIfAbsent(term, t -> new HashMap<>()).put(entry.id(), tf);
+            terms.add(term);
+        });
+        documentLengths.put(entry.id(), length);
+        totalLength += length;
+        indexed.put(entry.id(), entry);
+    }
+
+    private void remove(Long serviceId) {
+        ServiceCatalogService.Entry entry = indexed.remove(serviceId);
+        if (entry == null) {
+            return;
+        }
+        for (String term : tokenize(String.join(" ", nullToEmpty(entry.serviceName()), nullToEmpty(entry.category()),
+                nullToEmpty(entry.requiredSkills()), nullToEmpty(entry.description())))) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting != null && posting.remove(serviceId) != null && posting.isEmpty()) {
+                postings.remove(term);
+                terms.remove(term);
+            }
+        }
+        Float length = documentLengths.remove(serviceId);
+        if (length != null) {
+            totalLength -= length;
+        }
+    }
+
+    private float addField(Map<String, Float> frequencies, String text, float weight) {
+        List<String> tokens = tokenize(text);
+        for (String token : tokens) {
+            frequencies.merge(token, weight, Float::sum);
+        }
+        return tokens.size() * weight;
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    // Edit distance with adjacent transpositions; stops early once it exceeds max
+    private static int editDistance(String a, String b, int max) {
+        int[][] d = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            d[i][0] = i;
+        }
+        for (int j = 0; j <= b.length(); j++) {
+            d[0][j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int rowMin = Integer.MAX_VALUE;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                d[i][j] = Math.min(Math.min(d[i - 1][j] + 1, d[i][j - 1] + 1), d[i - 1][j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                }
+                rowMin = Math.min(rowMin, d[i][j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+        }
+        return d[a.length()][b.length()];
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.demo.service;
+
+import com.example.demo.event.AppointmentEvent;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.model.AppointmentStatus;
+import com.example.demo.repository.AppointmentRepository;
+import com.example.demo.util.TimeSlots;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory booking state for appointment time slots.
+ *
+ * Each day is a 64-bit bitmap with one bit per bookable slot in TimeSlots.SLOT_STARTS, loaded
+ * lazily from the database the first time the day is touched and kept up to date from
+ * AppointmentEvents. Labels that are not a known slot are rejected, never given a bit.
+ * Reservations flip a bit with compare-and-set, so two concurrent bookings of the same slot
+ * cannot both succeed. The state is per application instance.
+ */
+@Service
+@RequiredArgsConstructor
+public class SlotReservationService {
+
+    private final AppointmentRepository appointmentRepository;
+
+    // Booked-slot bitmap per day
+    private final ConcurrentHashMap<LocalDate, AtomicLong> bookedSlotsByDay = new ConcurrentHashMap<>();
+
+    /**
+     * Atomically reserve a slot. Returns false if the slot is already taken.
+     *
+     * @throws BadRequestException if timeSlot is not a known slot
+     */
+    public boolean tryReserve(LocalDate date, String timeSlot) {
+        long bit = bitFor(timeSlot);
+        AtomicLong day = getDay(date);
+        while (true) {
+            long current = day.get();
+            if ((current & bit) != 0) {
+                return false;
+            }
+            if (day.compareAndSet(current, current | bit)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Free a previously reserved slot
+     */
+    public void release(LocalDate date, String timeSlot) {
+        AtomicLong day = bookedSlotsByDay.get(date);
+        OptionalInt index = TimeSlots.slotIndex(timeSlot);
+        if (day == null || index.isEmpty()) {
+            return; // Not loaded yet (the next load reads the database), or a legacy label that never held a bit
+        }
+        long bit = 1L << index.getAsInt();
+        day.getAndUpdate(current -> current & ~bit);
+    }
+
+    /**
+     * Mark a slot as booked without checking (used when an appointment re-enters a slot-holding status)
+     */
+    public void markBooked(LocalDate date, String timeSlot) {
+        AtomicLong day = bookedSlotsByDay.get(date);
+        OptionalInt index = TimeSlots.slotIndex(timeSlot);
+        if (day == null || index.isEmpty()) {
+            return;
+        }
+        day.getAndUpdate(current -> current | 1L << index.getAsInt());
+    }
+
+    public boolean isAvailable(LocalDate date, String timeSlot) {
+        return (getDay(date).get() & bitFor(timeSlot)) == 0;
+    }
+
+    /**
+     * Booked time slot labels for a day, served from memory in the canonical form ("09:00 AM")
+     */
+    public List<String> getBookedSlots(LocalDate date) {
+        long bits = getDay(date).get();
+        List<String> booked = new ArrayList<>(Long.bitCount(bits));
+        while (bits != 0) {
+            booked.add(TimeSlots.label(TimeSlots.SLOT_STARTS.get(Long.numberOfTrailingZeros(bits))));
+            bits &= bits - 1;
+        }
+        return booked;
+    }
+
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE) // Release before the waitlist tries to reuse it
+    public void onAppointmentEvent(AppointmentEvent event) {
+        if (event.getType() == AppointmentEvent.Type.CREATED || event.getStatus() == null) {
+            return; // New bookings reserve their slot before the appointment is saved
+        }
+
+        AppointmentStatus previousStatus = event.getPreviousStatusOrCurrent();
+        LocalDateTime previousDate = event.getPreviousAppointmentDateOrCurrent();
+        String previousSlot = event.getPreviousTimeSlotOrCurrent();
+        boolean moved = !Objects.equals(previousDate, event.getAppointmentDate())
+                || !Objects.equals(previousSlot, event.getTimeSlot());
+
+        // Free the old slot when the appointment stops holding it or moves elsewhere
+        if (previousStatus.holdsSlot() && previousDate != null
+                && (!event.getStatus().holdsSlot() || moved)) {
+            release(previousDate.toLocalDate(), previousSlot);
+        }
+        // Re-occupy the slot if a cancelled appointment was reinstated
+        if (!previousStatus.holdsSlot() && event.getStatus().holdsSlot() && event.getAppointmentDate() != null) {
+            markBooked(event.getAppointmentDate().toLocalDate(), event.getTimeSlot());
+        }
+    }
+
+    // Drop days that are in the past
+    @Scheduled(cron = "0 5 0 * * ?")
+    public void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        bookedSlotsByDay.keySet().removeIf(date -> date.isBefore(today));
+    }
+
+    private AtomicLong getDay(LocalDate date) {
+        AtomicLong day = bookedSlotsByDay.get(date);
+        if (day != null) {
+            return day;
+        }
+        // Load outside the map lock; if another thread won the race, use its bitmap
+        long bits = 0L;
+        for (String timeSlot : appointmentRepository.findBookedTimeSlotsByDate(date)) {
+            OptionalInt index = TimeSlots.slotIndex(timeSlot);
+            if (index.isPresent()) { // Legacy labels outside the slot list cannot collide with new bookings
+                bits |= 1L << index.getAsInt();
+            }
+        }
+        AtomicLong existing = bookedSlotsByDay.putIfAbsent(date, new AtomicLong(bits));
+        return existing != null ? existing : bookedSlotsByDay.get(date);
+    }
+
+    private long bitFor(String timeSlot) {
+        OptionalInt index = TimeSlots.slotIndex(timeSlot);
+        if (index.isEmpty()) {
+            throw new BadRequestException("Unknown time slot: " + timeSlot);
+        }
+        return 1L << index.getAsInt();
+    }
+}
@@ -0,0 +1,399 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TeamMemberImportResponse;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.model.TeamMember;
+import com.example.demo.repository.TeamMemberRepository;
+import com.example.demo.repository.TeamRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.util.CsvReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of team members from CSV.
+ *
+ * The file is read one record at a time and rows go through a pipeline: field validation
+ * (the same rules as TeamMemberDTO / TeamMemberService), team lookup against the team ids read
+ * once up front, then per chunk one IN query for supervisors and one for NICs already taken,
+ * and a JDBC batch insert in its own transaction. Chunks are inserted before the next one is
+ * checked, so NICs repeated across chunks are caught by the NIC query; only the current chunk
+ * is held in memory.
+ *
+ * Invalid rows are skipped and reported by line; everything else is imported. If the database
+ * rejects a chunk, its rows are retried one by one so only the offending rows are reported. A
+ * record the CSV reader cannot get past (too long, or a quote never closed) ends the import at
+ * that line, keeping the rows before it.
+ */
+@Service
+public class TeamMemberImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final Pattern NIC = Pattern.compile("[0-9]{12}");
+    private static final Pattern CONTACT_NO = Pattern.compile("[0-9]{10,15}");
+    private static final Set<Short> ALLOWED_HOURS = Set.of((short) 4, (short) 6, (short) 8, (short) 10, (short) 12);
+    private static final List<String> REQUIRED_COLUMNS = List.of(
+            "fullname", "nic", "contactno", "birthdate", "address", "city", "specialization", "joineddate",
+            "workinghoursperday");
+
+    private static final String INSERT_SQL =
+            "INSERT INTO team_members (full_name, nic, contact_no, birth_date, age, address, city, specialization, " +
+            "joined_date, working_hours_per_day, team_id, supervisor_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private record Row(int line, String fullName, String nic, String contactNo, LocalDate birthDate, int age,
+                       String address, TeamMember.District city, TeamMember.Specialization specialization,
+                       LocalDate joinedDate, short workingHours, Long teamId, Long supervisorId) {
+    }
+
+    private static class Report {
+        private int rows;
+        private int imported;
+        private int failed;
+        private final List<TeamMemberImportResponse.RowError> errors = new ArrayList<>();
+        private final Set<Long> teams = new HashSet<>();
+
+        private void fail(int line, String nic, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(TeamMemberImportResponse.RowError.builder().line(line).nic(nic).message(message).build());
+            }
+        }
+    }
+
+    private final TeamMemberRepository teamMemberRepository;
+    private final TeamRepository teamRepository;
+    private final UserRepository userRepository;
+    private final TeamService teamService;
+    private final TeamMemberSearchService teamMemberSearchService;
+    private final TeamStatsCache teamStatsCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${team-members.import.batch-size:1000}")
+    private int batchSize;
+
+    public TeamMemberImportService(TeamMemberRepository teamMemberRepository,
+                                   TeamRepository teamRepository,
+                                   UserRepository userRepository,
+                                   TeamService teamService,
+                                   TeamMemberSearchService teamMemberSearchService,
+                                   TeamStatsCache teamStatsCache,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager) {
+        this.teamMemberRepository = teamMemberRepository;
+        this.teamRepository = teamRepository;
+        this.userRepository = userRepository;
+        this.teamService = teamService;
+        this.teamMemberSearchService = teamMemberSearchService;
+        this.teamStatsCache = teamStatsCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Import the CSV. The first record is the header; column names match TeamMemberDTO
+     * (fullName, nic, contactNo, birthDate, address, city, specialization, joinedDate,
+     * workingHoursPerDay, and optionally teamId and supervisorId), in any order and case.
+     */
+    public TeamMemberImportResponse importCsv(Reader input) throws IOException {
+        long started = System.nanoTime();
+        Report report = new Report();
+
+        try (CsvReader csv = new CsvReader(input)) {
+            List<String> header;
+            try {
+                header = csv.readRecord();
+            } catch (CsvReader.MalformedCsvException e) {
+                throw new BadRequestException("CSV header: " + e.getMessage());
+            }
+            if (header == null) {
+                throw new BadRequestException("CSV file is empty");
+            }
+            Map<String, Integer> columns = indexColumns(header);
+            Set<Long> teamIds = new HashSet<>(teamRepository.findAllIds());
+
+            List<Row> chunk = new ArrayList<>(batchSize);
+            List<String> record;
+            try {
+                while ((record = csv.readRecord()) != null) {
+                    report.rows++;
+                    Row row = parse(csv.getRecordLine(), record, columns, teamIds, report);
+                    if (row != null) {
+                        chunk.add(row);
+                        if (chunk.size() == batchSize) {
+                            insertChunk(chunk, report);
+                            chunk.clear();
+                        }
+                    }
+                }
+            } catch (CsvReader.MalformedCsvException e) {
+                // Nothing after this record can be read reliably
+                report.rows++;
+                report.fail(e.getLine(), null, e.getMessage() + "; the rest of the file was not read");
+            }
+            if (!chunk.isEmpty()) {
+                insertChunk(chunk, report);
+            }
+        }
+
+        if (report.imported > 0) {
+            teamMemberSearchService.invalidate();
+            teamStatsCache.invalidate(report.teams.toArray(new Long[0]));
+        }
+        return TeamMemberImportResponse.builder()
+                .rows(report.rows)
+                .imported(report.imported)
+                .failed(report.failed)
+                .errors(report.errors)
+                .errorsTruncated(report.failed > report.errors.size())
+                .elapsedMillis((System.nanoTime() - started) / 1_000_000)
+                .build();
+    }
+
+    private Map<String, Integer> indexColumns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream()
+                .filter(column -> !columns.containsKey(column))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new BadRequestException("CSV header is missing columns: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    // Field validation and team lookup; null (with the reasons reported) when the row is invalid
+    private Row parse(int line, List<String> record, Map<String, Integer> columns, Set<Long> teamIds, Report report) {
+        List<String> problems = new ArrayList<>();
+        String fullName = value(record, columns, "fullname");
+        String nic = value(record, columns, "nic");
+        String contactNo = value(record, columns, "contactno");
+        String address = value(record, columns, "address");
+
+        if (fullName == null || fullName.length() < 2 || fullName.length() > 100) {
+            problems.add("Full name must be between 2 and 100 characters");
+        }
+        if (nic == null || !NIC.matcher(nic).matches()) {
+            problems.add("NIC must be exactly 12 digits");
+        }
+        if (contactNo == null || !CONTACT_NO.matcher(contactNo).matches()) {
+            problems.add("Contact number must be 10-15 digits");
+        }
+        if (address == null || address.length() < 5 || address.length() > 200) {
+            problems.add("Address must be between 5 and 200 characters");
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDate birthDate = date(record, columns, "birthdate", "Birth date", problems);
+        int age = 0;
+        if (birthDate != null) {
+            age = Period.between(birthDate, today).getYears();
+            if (age < 18 || age > 80) {
+                problems.add("Employee must be between 18 and 80 years old");
+            }
+        }
+        LocalDate joinedDate = date(record, columns, "joineddate", "Joined date", problems);
+        if (joinedDate != null && joinedDate.isAfter(today)) {
+            problems.add("Joined date cannot be in the future");
+        }
+
+        TeamMember.District city = enumValue(TeamMember.District.class, value(record, columns, "city"));
+        if (city == null) {
+            problems.add("Invalid city");
+        }
+        TeamMember.Specialization specialization =
+                enumValue(TeamMember.Specialization.class, value(record, columns, "specialization"));
+        if (specialization == null) {
+            problems.add("Invalid specialization");
+        }
+        Short workingHours = shortValue(value(record, columns, "workinghoursperday"));
+        if (workingHours == null || !ALLOWED_HOURS.contains(workingHours)) {
+            problems.add("Working hours must be one of: 4, 6, 8, 10, 12");
+        }
+
+        Long teamId = id(record, columns, "teamid", "Team ID", problems);
+        if (teamId != null && !teamIds.contains(teamId)) {
+            problems.add("Team not found with ID: " + teamId);
+        }
+        Long supervisorId = id(record, columns, "supervisorid", "Supervisor ID", problems);
+
+        if (!problems.isEmpty()) {
+            report.fail(line, nic, String.join("; ", problems));
+            return null;
+        }
+        return new Row(line, fullName, nic, contactNo, birthDate, age, address, city, specialization, joinedDate,
+                workingHours, teamId, supervisorId);
+    }
+
+    // Supervisor and NIC checks for the whole chunk, then one batch insert for the rows that pass
+    private void insertChunk(List<Row> chunk, Report report) {
+        Set<Long> supervisorIds = chunk.stream()
+                .map(Row::supervisorId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> existingSupervisors = supervisorIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(userRepository.findExistingIds(supervisorIds));
+        Set<String> takenNics = new HashSet<>(teamMemberRepository.findExistingNics(
+                chunk.stream().map(Row::nic).collect(Collectors.toList())));
+
+        List<Row> valid = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (row.supervisorId() != null && !existingSupervisors.contains(row.supervisorId())) {
+                report.fail(row.line(), row.nic(), "Supervisor not found with ID: " + row.supervisorId());
+            } else if (!takenNics.add(row.nic())) {
+                report.fail(row.line(), row.nic(), "Team member with NIC " + row.nic() + " already exists");
+            } else {
+                valid.add(row);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        try {
+            insert(valid);
+        } catch (DataIntegrityViolationException e) {
+            // A NIC was taken concurrently (or a team / supervisor deleted) since the chunk was checked;
+            // retry the rows one by one so only the offending ones are reported
+            for (Row row : valid) {
+                try {
+                    insert(List.of(row));
+                    imported(List.of(row), report);
+                } catch (DataIntegrityViolationException rowError) {
+                    report.fail(row.line(), row.nic(),
+                            "Not imported: rejected by the database (NIC taken, or team / supervisor removed meanwhile)");
+                }
+            }
+            return;
+        }
+        imported(valid, report);
+    }
+
+    // Batch insert plus the team aggregate updates, in one transaction
+    private void insert(List<Row> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+                ps.setString(1, row.fullName());
+                ps.setString(2, row.nic());
+                ps.setString(3, row.contactNo());
+                ps.setDate(4, Date.valueOf(row.birthDate()));
+                ps.setInt(5, row.age());
+                ps.setString(6, row.address());
+                ps.setString(7, row.city().name());
+                ps.setString(8, row.specialization().name());
+                ps.setDate(9, Date.valueOf(row.joinedDate()));
+                ps.setShort(10, row.workingHours());
+                ps.setObject(11, row.teamId(), Types.BIGINT);
+                ps.setObject(12, row.supervisorId(), Types.BIGINT);
+                ps.setTimestamp(13, now);
+                ps.setTimestamp(14, now);
+            });
+
+            // Team aggregates move by the rows' totals, one update per team
+            Map<Long, int[]> deltas = new HashMap<>();
+            for (Row row : rows) {
+                if (row.teamId() != null) {
+                    int[] delta = deltas.computeIfAbsent(row.teamId(), id -> new int[3]);
+                    delta[0]++;
+                    delta[1] += row.workingHours();
+                    delta[2] += row.age();
+                }
+            }
+            deltas.forEach((teamId, delta) -> teamService.applyMemberDelta(teamId, delta[0], delta[1], delta[2]));
+        });
+    }
+
+    private static void imported(List<Row> rows, Report report) {
+        report.imported += rows.size();
+        rows.stream().map(Row::teamId).filter(Objects::nonNull).forEach(report.teams::add);
+    }
+
+    private static String value(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static LocalDate date(List<String> record, Map<String, Integer> columns, String column, String label,
+                                  List<String> problems) {
+        String value = value(record, columns, column);
+        if (value == null) {
+            problems.add(label + " is required");
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            problems.add(label + " must be a date in yyyy-MM-dd format");
+            return null;
+        }
+    }
+
+    private static Long id(List<String> record, Map<String, Integer> columns, String column, String label,
+                           List<String> problems) {
+        String value = value(record, columns, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            problems.add(label + " must be a number");
+            return null;
+        }
+    }
+
+    private static Short shortValue(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Short.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> type, String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.demo.service;
+
+import com.example.demo.model.TeamMember;
+import com.example.demo.repository.TeamMemberRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Relevance-ranked, paginated team member search over full name, NIC, contact number, address
+ * and working hours.
+ *
+ * On PostgreSQL with pg_trgm (see TrigramIndexInitializer) the search is one query whose
+ * substring (LIKE '%term%') and fuzzy (%>) predicates are all served by trigram GIN indexes.
+ * Elsewhere (H2 in tests, or when the extension is missing) an in-memory trigram index gives
+ * the same matching and ranking; it is rebuilt after team member changes commit.
+ *
+ * Ranking: substring hits in the name count most, then NIC / contact number, then address; the
+ * fuzzy similarity of the term to the name and address words is added on top.
+ */
+@Service
+@RequiredArgsConstructor
+public class TeamMemberSearchService {
+
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final double FUZZY_THRESHOLD = 0.6; // pg_trgm word_similarity_threshold default
+
+    private static final String TRIGRAM_SQL =
+            "SELECT tm.id, " +
+            "  (CASE WHEN lower(tm.full_name) LIKE :pattern THEN 1.0 ELSE 0 END" +
+            "   + CASE WHEN lower(tm.nic) LIKE :pattern OR tm.contact_no LIKE :pattern THEN 0.9 ELSE 0 END" +
+            "   + CASE WHEN lower(tm.address) LIKE :pattern THEN 0.4 ELSE 0 END" +
+            "   + CASE WHEN tm.working_hours_per_day = :hours THEN 0.3 ELSE 0 END" +
+            "   + word_similarity(:term, lower(tm.full_name))" +
+            "   + 0.5 * word_similarity(:term, lower(tm.address))) AS score " +
+            "FROM team_members tm " +
+            "WHERE (lower(tm.full_name) LIKE :pattern OR lower(tm.nic) LIKE :pattern OR tm.contact_no LIKE :pattern" +
+            "   OR lower(tm.address) LIKE :pattern OR tm.working_hours_per_day = :hours" +
+            "   OR lower(tm.full_name) %> :term OR lower(tm.address) %> :term) ";
+
+    private record Hit(Long id, double score) {
+    }
+
+    private record Document(Long id, Long supervisorId, String fullName, String nic, String contactNo,
+                            String address, String workingHours, Set<String> nameTrigrams,
+                            Set<String> addressTrigrams) {
+    }
+
+    private record MemoryIndex(List<Document> documents, Map<String, List<Document>> byTrigram) {
+    }
+
+    private final TeamMemberRepository teamMemberRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    private volatile Boolean trigramAvailable;
+    private volatile MemoryIndex memoryIndex;
+
+    /**
+     * One page of matching team members, best match first. supervisorId is optional.
+     */
+    public List<TeamMember> search(String term, Long supervisorId, int page, int size) {
+        String normalized = term != null ? term.trim().toLowerCase(Locale.ROOT) : "";
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int offset = Math.max(0, page) * pageSize;
+
+        List<Hit> hits = useTrigramIndexes()
+                ? searchTrigramIndexes(normalized, supervisorId, offset, pageSize)
+                : searchMemory(normalized, supervisorId, offset, pageSize);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, TeamMember> members = teamMemberRepository.findAllWithTeamAndSupervisorByIdIn(
+                        hits.stream().map(Hit::id).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(TeamMember::getId, Function.identity()));
+        List<TeamMember> results = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            TeamMember member = members.get(hit.id());
+            if (member != null) {
+                results.add(member);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Drop the in-memory index once the current transaction commits (immediately if there is none)
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    memoryIndex = null;
+                }
+            });
+        } else {
+            memoryIndex = null;
+        }
+    }
+
+    private List<Hit> searchTrigramIndexes(String term, Long supervisorId, int offset, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("term", term)
+                .addValue("pattern", "%" + escapeLike(term) + "%")
+                .addValue("hours", workingHours(term), Types.SMALLINT)
+                .addValue("limit", limit)
+                .addValue("offset", offset);
+        String sql = TRIGRAM_SQL;
+        if (supervisorId != null) {
+            sql += "AND tm.supervisor_id = :supervisorId ";
+            params.addValue("supervisorId", supervisorId);
+        }
+        sql += "ORDER BY score DESC, tm.id LIMIT :limit OFFSET :offset";
+        return namedParameterJdbcTemplate.query(sql, params,
+                (rs, rowNum) -> new Hit(rs.getLong("id"), rs.getDouble("score")));
+    }
+
+    private List<Hit> searchMemory(String term, Long supervisorId, int offset, int limit) {
+        MemoryIndex index = memoryIndex;
+        if (index == null) {
+            index = buildMemoryIndex();
+            memoryIndex = index;
+        }
+
+        // Candidates share at least one trigram with the term; short terms check every document
+        Set<String> termTrigrams = trigrams(term);
+        Iterable<Document> candidates;
+        if (term.length() >= 3) {
+            Set<Document> shared = new HashSet<>();
+            for (String trigram : termTrigrams) {
+                shared.addAll(index.byTrigram().getOrDefault(trigram, List.of()));
+            }
+            // Substring hits on NIC / contact number / working hours are not in the word trigrams
+            for (Document document : index.documents()) {
+                if (document.nic().contains(term) || document.contactNo().contains(term)
+                        || document.workingHours().equals(term)) {
+                    shared.add(document);
+                }
+            }
+            candidates = shared;
+        } else {
+            candidates = index.documents();
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        for (Document document : candidates) {
+            if (supervisorId != null && !supervisorId.equals(document.supervisorId())) {
+                continue;
+            }
+            double nameSimilarity = similarity(termTrigrams, document.nameTrigrams());
+            double addressSimilarity = similarity(termTrigrams, document.addressTrigrams());
+            boolean nameMatch = document.fullName().contains(term);
+            boolean numberMatch = document.nic().contains(term) || document.contactNo().contains(term);
+            boolean addressMatch = document.address().contains(term);
+            boolean hoursMatch = document.workingHours().equals(term);
+            if (!nameMatch && !numberMatch && !addressMatch && !hoursMatch
+                    && nameSimilarity < FUZZY_THRESHOLD && addressSimilarity < FUZZY_THRESHOLD) {
+                continue;
+            }
+            double score = (nameMatch ? 1.0 : 0) + (numberMatch ? 0.9 : 0) + (addressMatch ? 0.4 : 0)
+                    + (hoursMatch ? 0.3 : 0) + nameSimilarity + 0.5 * addressSimilarity;
+            hits.add(new Hit(document.id(), score));
+        }
+
+        hits.sort(Comparator.comparingDouble(Hit::score).reversed().thenComparing(Hit::id));
+        if (offset >= hits.size()) {
+            return List.of();
+        }
+        return hits.subList(offset, Math.min(offset + limit, hits.size()));
+    }
+
+    private MemoryIndex buildMemoryIndex() {
+        List<Document> documents = new ArrayList<>();
+        Map<String, List<Document>> byTrigram = new HashMap<>();
+        for (Object[] row : teamMemberRepository.findSearchableColumns()) {
+            String fullName = lower(row[2]);
+            String address = lower(row[5]);
+            Document document = new Document((Long) row[0], (Long) row[1], fullName, lower(row[3]), lower(row[4]),
+                    address, lower(row[6]), trigrams(fullName), trigrams(address));
+            documents.add(document);
+
+            Set<String> all = new HashSet<>(document.nameTrigrams());
+            all.addAll(document.addressTrigrams());
+            for (String trigram : all) {
+                byTrigram.computeIfAbsent(trigram, t -> new ArrayList<>()).add(document);
+            }
+        }
+        return new MemoryIndex(documents, byTrigram);
+    }
+
+    private boolean useTrigramIndexes() {
+        Boolean available = trigramAvailable;
+        if (available == null) {
+            try {
+                String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                        connection.getMetaData().getDatabaseProductName());
+                available = "PostgreSQL".equalsIgnoreCase(database) && Objects.equals(1, jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM pg_extension WHERE extname = 'pg_trgm'", Integer.class));
+            } catch (RuntimeException e) {
+                available = false;
+            }
+            trigramAvailable = available;
+        }
+        return available;
+    }
+
+    // Word similarity in the pg_trgm sense: share of the term's trigrams found in the text
+    private static double similarity(Set<String> termTrigrams, Set<String> textTrigrams) {
+        if (termTrigrams.isEmpty()) {
+            return 0;
+        }
+        int shared = 0;
+        for (String trigram : termTrigrams) {
+            if (textTrigrams.contains(trigram)) {
+                shared++;
+            }
+        }
+        return (double) shared / termTrigrams.size();
+    }
+
+    // pg_trgm-style trigrams: each word padded with two spaces in front and one behind
+    private static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    // The term as a working-hours value, or null (matches nothing) when it is not a small number
+    private static Short workingHours(String term) {
+        if (term.length() > 2 || !term.chars().allMatch(Character::isDigit)) {
+            return null;
+        }
+        return Short.valueOf(term);
+    }
+
+    private static String lower(Object value) {
+        return value != null ? value.toString().toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
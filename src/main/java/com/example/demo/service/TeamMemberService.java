@@ -30,6 +30,15 @@ public class TeamMemberService {
     @Autowired
     private TeamRepository teamRepository;
 
+    @Autowired
+    private TeamMemberSearchService teamMemberSearchService;
+
+    @Autowired
+    private TeamStatsCache teamStatsCache;
+
+    @Autowired
+    private TeamService teamService;
+
     public List<TeamMemberDTO> getAllTeamMembers() {
         return teamMemberRepository.findAll()
                 .stream()
@@ -77,6 +86,9 @@ public class TeamMemberService {
 
         TeamMember teamMember = convertToEntity(teamMemberDTO, team, supervisor);
         TeamMember savedMember = teamMemberRepository.save(teamMember);
+        updateTeamAggregates(null, 0, 0, savedMember);
+        teamMemberSearchService.invalidate();
+        teamStatsCache.invalidate(savedMember.getTeamId());
         return convertToDTO(savedMember);
     }
 
@@ -109,18 +121,31 @@ public class TeamMemberService {
                                 .orElseThrow(() -> new IllegalArgumentException("Supervisor not found with ID: " + teamMemberDTO.getSupervisorId()));
                     }
 
+                    // Captured before the merge below overwrites the managed instance
+                    Long previousTeamId = existingMember.getTeamId();
+                    int previousHours = workingHoursOf(existingMember);
+                    int previousAge = existingMember.getAge();
+
                     TeamMember updatedMember = convertToEntity(teamMemberDTO, team, supervisor);
                     updatedMember.setId(id);
                     updatedMember.setCreatedAt(existingMember.getCreatedAt()); // Preserve creation timestamp
 
                     TeamMember savedMember = teamMemberRepository.save(updatedMember);
+                    updateTeamAggregates(previousTeamId, previousHours, previousAge, savedMember);
+                    teamMemberSearchService.invalidate();
+                    teamStatsCache.invalidate(previousTeamId, savedMember.getTeamId());
                     return convertToDTO(savedMember);
                 });
     }
 
     public boolean deleteTeamMember(Long id) {
-        if (teamMemberRepository.existsById(id)) {
-            teamMemberRepository.deleteById(id);
+        Optional<TeamMember> member = teamMemberRepository.findById(id);
+        if (member.isPresent()) {
+            teamMemberRepository.delete(member.get());
+            teamService.applyMemberDelta(member.get().getTeamId(), -1,
+                    -workingHoursOf(member.get()), -member.get().getAge());
+            teamMemberSearchService.invalidate();
+            teamStatsCache.invalidate(member.get().getTeamId());
             return true;
         }
         return false;
@@ -167,6 +192,8 @@ public class TeamMemberService {
                     }
                     teamMember.setSupervisor(supervisor);
                     TeamMember updatedMember = teamMemberRepository.save(teamMember);
+                    teamMemberSearchService.invalidate();
+                    teamStatsCache.invalidate(updatedMember.getTeamId());
                     return convertToDTO(updatedMember);
                 });
     }
@@ -176,6 +203,8 @@ public class TeamMemberService {
                 .map(teamMember -> {
                     teamMember.setSupervisor(null);
                     TeamMember updatedMember = teamMemberRepository.save(teamMember);
+                    teamMemberSearchService.invalidate();
+                    teamStatsCache.invalidate(updatedMember.getTeamId());
                     return convertToDTO(updatedMember);
                 });
     }
@@ -188,8 +217,12 @@ public class TeamMemberService {
                         team = teamRepository.findById(teamId)
                                 .orElseThrow(() -> new IllegalArgumentException("Team not found with ID: " + teamId));
                     }
+                    Long previousTeamId = teamMember.getTeamId();
+                    int previousAge = teamMember.getAge();
                     teamMember.setTeam(team);
                     TeamMember updatedMember = teamMemberRepository.save(teamMember);
+                    updateTeamAggregates(previousTeamId, workingHoursOf(updatedMember), previousAge, updatedMember);
+                    teamStatsCache.invalidate(previousTeamId, teamId);
                     return convertToDTO(updatedMember);
                 });
     }
@@ -197,8 +230,11 @@ public class TeamMemberService {
     public Optional<TeamMemberDTO> removeTeam(Long teamMemberId) {
         return teamMemberRepository.findById(teamMemberId)
                 .map(teamMember -> {
+                    Long previousTeamId = teamMember.getTeamId();
+                    teamService.applyMemberDelta(previousTeamId, -1, -workingHoursOf(teamMember), -teamMember.getAge());
                     teamMember.setTeam(null);
                     TeamMember updatedMember = teamMemberRepository.save(teamMember);
+                    teamStatsCache.invalidate(previousTeamId);
                     return convertToDTO(updatedMember);
                 });
     }
@@ -211,15 +247,12 @@ public class TeamMemberService {
     }
 
     public List<TeamMemberDTO> getTeamMembersWithoutTeam() {
-        return teamMemberRepository.findAll()
-                .stream()
-                .filter(member -> member.getTeam() == null)
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return withCurrentAge(teamMemberRepository.findDtosByTeamIsNull());
     }
 
-    public List<TeamMemberDTO> searchTeamMembers(String searchTerm) {
-        return teamMemberRepository.searchTeamMembers(searchTerm)
+    // Relevance-ranked page of matches; supervisorId narrows to one supervisor's members (optional)
+    public List<TeamMemberDTO> searchTeamMembers(String searchTerm, Long supervisorId, int page, int size) {
+        return teamMemberSearchService.search(searchTerm, supervisorId, page, size)
                 .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
@@ -228,7 +261,7 @@ public class TeamMemberService {
     // UPDATED: Get team members by working hours (now using String)
     public List<TeamMemberDTO> getTeamMembersByWorkingHours(String workingHours) {
         validateWorkingHours(workingHours); // Validate the input
-        return teamMemberRepository.findByWorkingHoursPerDay(workingHours)
+        return teamMemberRepository.findByWorkingHoursPerDay(Short.valueOf(workingHours.trim()))
                 .stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
@@ -241,52 +274,52 @@ public class TeamMemberService {
                 .collect(Collectors.toList());
     }
 
+    // Age in [minAge, maxAge] today, as a birth-date range so the index applies and stored ages can't be stale
     public List<TeamMemberDTO> getTeamMembersByAgeRange(int minAge, int maxAge) {
-        return teamMemberRepository.findAll()
-                .stream()
-                .filter(member -> member.getAge() >= minAge && member.getAge() <= maxAge)
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        LocalDate today = LocalDate.now();
+        return withCurrentAge(teamMemberRepository.findDtosByBirthDateRange(
+                today.minusYears(maxAge + 1L), today.minusYears(minAge)));
+    }
+
+    private List<TeamMemberDTO> withCurrentAge(List<TeamMemberDTO> members) {
+        LocalDate today = LocalDate.now();
+        for (TeamMemberDTO member : members) {
+            if (member.getBirthDate() != null) {
+                member.setAge(Period.between(member.getBirthDate(), today).getYears());
+            }
+        }
+        return members;
     }
 
     // NEW: Get team statistics with member details
     public TeamStatsDTO getTeamStatsWithMembers(Long teamId) {
-        Team team = teamRepository.findById(teamId)
-                .orElseThrow(() -> new IllegalArgumentException("Team not found with ID: " + teamId));
-
-        List<TeamMember> members = teamMemberRepository.findByTeamIdWithTeamDetails(teamId);
-
-        return TeamStatsDTO.builder()
-                .teamId(team.getId())
-                .teamName(team.getName())
-                .specialization(team.getSpecialization().name())
-                .totalMembers(members.size())
-                .averageAge(calculateAverageAge(members))
-                .totalWorkingHours(calculateTotalWorkingHours(members))
-                .memberDetails(members.stream().map(this::convertToDTO).collect(Collectors.toList()))
-                .build();
+        TeamStatsDTO stats = teamStatsCache.get(teamId);
+        if (stats == null) {
+            throw new IllegalArgumentException("Team not found with ID: " + teamId);
+        }
+        return stats;
     }
 
-    // NEW: Get all teams with their statistics
+    // NEW: Get all teams with their statistics (two queries at most, see TeamStatsCache)
     public List<TeamStatsDTO> getAllTeamsWithStats() {
-        List<Team> teams = teamRepository.findAll();
-        return teams.stream()
-                .map(team -> getTeamStatsWithMembers(team.getId()))
-                .collect(Collectors.toList());
+        return teamStatsCache.getAll();
     }
 
-    private double calculateAverageAge(List<TeamMember> members) {
-        if (members.isEmpty()) return 0;
-        return members.stream()
-                .mapToInt(TeamMember::getAge)
-                .average()
-                .orElse(0);
+    // Move a member's contribution in the team aggregates from what was stored (previous*, team null
+    // for a new member) to the member as it is being saved. The age is the one @PreUpdate will store.
+    private void updateTeamAggregates(Long previousTeamId, int previousHours, int previousAge, TeamMember member) {
+        int hours = workingHoursOf(member);
+        int age = Period.between(member.getBirthDate(), LocalDate.now()).getYears();
+        if (previousTeamId != null && previousTeamId.equals(member.getTeamId())) {
+            teamService.applyMemberDelta(previousTeamId, 0, hours - previousHours, age - previousAge);
+        } else {
+            teamService.applyMemberDelta(previousTeamId, -1, -previousHours, -previousAge);
+            teamService.applyMemberDelta(member.getTeamId(), 1, hours, age);
+        }
     }
 
-    private int calculateTotalWorkingHours(List<TeamMember> members) {
-        return members.stream()
-                .mapToInt(member -> Integer.parseInt(member.getWorkingHoursPerDay()))
-                .sum();
+    private int workingHoursOf(TeamMember member) {
+        return member.getWorkingHoursPerDay();
     }
 
     private void validateAge(LocalDate birthDate) {
@@ -321,8 +354,8 @@ public class TeamMemberService {
         entity.setSpecialization(TeamMember.Specialization.valueOf(dto.getSpecialization().toUpperCase()));
         entity.setJoinedDate(dto.getJoinedDate());
 
-        // Set working hours as String directly
-        entity.setWorkingHoursPerDay(dto.getWorkingHoursPerDay());
+        // Working hours arrive as a validated string ("8") and are stored as a number
+        entity.setWorkingHoursPerDay(Short.valueOf(dto.getWorkingHoursPerDay().trim()));
 
         // Set team relationship
         entity.setTeam(team);
@@ -344,8 +377,8 @@ public class TeamMemberService {
         dto.setSpecialization(entity.getSpecialization().name());
         dto.setJoinedDate(entity.getJoinedDate());
 
-        // Get working hours as String directly
-        dto.setWorkingHoursPerDay(entity.getWorkingHoursPerDay());
+        // Working hours go back out in the string form clients already use
+        dto.setWorkingHoursPerDay(String.valueOf(entity.getWorkingHoursPerDay()));
 
         // Set team information
         dto.setTeamId(entity.getTeamId());
@@ -8,16 +8,25 @@ import com.example.demo.model.User;
 import com.example.demo.repository.TeamRepository;
 import com.example.demo.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class TeamService {
 
     private final TeamRepository teamRepository;
     private final UserRepository userRepository;
+    private final TeamStatsCache teamStatsCache;
 
     @Transactional(readOnly = true)
     public List<TeamResponseDTO> getAllTeams() {
@@ -50,13 +59,14 @@ public class TeamService {
         Team team = new Team();
         team.setName(teamRequest.getName());
         team.setSpecialization(teamRequest.getSpecialization());
-        team.setMemberCount(teamRequest.getMemberCount());
-        team.setTotalWorkingHours(teamRequest.getTotalWorkingHours());
-        team.setAverageAge(teamRequest.getAverageAge());
+        team.setMemberCount(0);
+        team.setTotalWorkingHours(0);
+        team.setAgeSum(0);
         team.setDescription(teamRequest.getDescription());
         team.setEmployee(employee);
 
         Team savedTeam = teamRepository.save(team);
+        teamStatsCache.invalidate(savedTeam.getId());
         return convertToDTO(savedTeam);
     }
 
@@ -80,13 +90,11 @@ public class TeamService {
 
         team.setName(teamRequest.getName());
         team.setSpecialization(teamRequest.getSpecialization());
-        team.setMemberCount(teamRequest.getMemberCount());
-        team.setTotalWorkingHours(teamRequest.getTotalWorkingHours());
-        team.setAverageAge(teamRequest.getAverageAge());
         team.setDescription(teamRequest.getDescription());
         team.setEmployee(employee);
 
         Team updatedTeam = teamRepository.save(team);
+        teamStatsCache.invalidate(id);
         return convertToDTO(updatedTeam);
     }
 
@@ -95,6 +103,53 @@ public class TeamService {
         Team team = teamRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Team not found with id: " + id));
         teamRepository.delete(team);
+        teamStatsCache.invalidate(id);
+    }
+
+    /**
+     * Add a member change to a team's running aggregates, in the caller's transaction.
+     * Adding a member is (+1, hours, age), removing one is (-1, -hours, -age). Null teams are ignored.
+     */
+    @Transactional
+    public void applyMemberDelta(Long teamId, int members, int workingHours, int ageSum) {
+        if (teamId == null || (members == 0 && workingHours == 0 && ageSum == 0)) {
+            return;
+        }
+        teamRepository.applyMemberDelta(teamId, members, workingHours, ageSum);
+    }
+
+    /**
+     * Recompute every team's aggregates from team_members and correct the ones that drifted
+     * (rows changed outside TeamMemberService, or teams created before the aggregates were kept)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 15 3 * * ?")
+    @Transactional
+    public void reconcileMemberAggregates() {
+        Map<Long, Team> teams = new HashMap<>();
+        teamRepository.findAll().forEach(team -> teams.put(team.getId(), team));
+
+        int corrected = 0;
+        for (Object[] row : teamRepository.computeMemberAggregates()) {
+            Team team = teams.get((Long) row[0]);
+            if (team == null) {
+                continue;
+            }
+            int memberCount = ((Number) row[1]).intValue();
+            int totalWorkingHours = row[2] != null ? ((Number) row[2]).intValue() : 0;
+            int ageSum = row[3] != null ? ((Number) row[3]).intValue() : 0;
+            Integer averageAge = memberCount > 0 ? (int) Math.round((double) ageSum / memberCount) : null;
+            if (!Objects.equals(team.getMemberCount(), memberCount)
+                    || !Objects.equals(team.getTotalWorkingHours(), totalWorkingHours)
+                    || !Objects.equals(team.getAgeSum(), ageSum)
+                    || !Objects.equals(team.getAverageAge(), averageAge)) {
+                teamRepository.setMemberAggregates(team.getId(), memberCount, totalWorkingHours, ageSum, averageAge);
+                corrected++;
+            }
+        }
+        if (corrected > 0) {
+            log.info("Corrected member aggregates for {} team(s)", corrected);
+        }
     }
 
     @Transactional(readOnly = true)
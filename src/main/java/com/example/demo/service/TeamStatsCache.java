@@ -0,0 +1,149 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.TeamMemberDTO;
+import com.example.demo.model.Team;
+import com.example.demo.repository.TeamMemberRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-team statistics with member details, built from one GROUP BY query over teams and one
+ * projection query over their members, however many teams there are.
+ *
+ * Entries are marked stale after a commit that changes a team or its members; the next read
+ * reloads only the stale teams, again with two queries.
+ */
+@Service
+@RequiredArgsConstructor
+public class TeamStatsCache {
+
+    private final TeamMemberRepository teamMemberRepository;
+
+    private final Map<Long, TeamMemberService.TeamStatsDTO> statsByTeam = new ConcurrentHashMap<>();
+    private final Set<Long> stale = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded;
+
+    /**
+     * Statistics for every team, ordered by team id
+     */
+    public List<TeamMemberService.TeamStatsDTO> getAll() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    stale.clear();
+                    statsByTeam.clear();
+                    statsByTeam.putAll(load(teamMemberRepository.getTeamStatistics(),
+                            teamMemberRepository.findDtosWithTeam()));
+                    loaded = true;
+                }
+            }
+        }
+        refreshStale();
+
+        List<TeamMemberService.TeamStatsDTO> all = new ArrayList<>(statsByTeam.values());
+        all.sort(Comparator.comparing(TeamMemberService.TeamStatsDTO::getTeamId));
+        return all;
+    }
+
+    /**
+     * Statistics for one team, or null when the team does not exist
+     */
+    public TeamMemberService.TeamStatsDTO get(Long teamId) {
+        if (loaded) {
+            refreshStale();
+            return statsByTeam.get(teamId);
+        }
+        List<Long> ids = List.of(teamId);
+        return load(teamMemberRepository.getTeamStatisticsByTeamIdIn(ids),
+                teamMemberRepository.findDtosByTeamIdIn(ids)).get(teamId);
+    }
+
+    /**
+     * Mark teams stale once the current transaction commits (immediately if there is none).
+     * Null ids are ignored, so callers can pass a member's old and new team as they are.
+     */
+    public void invalidate(Long... teamIds) {
+        Set<Long> ids = new HashSet<>();
+        for (Long teamId : teamIds) {
+            if (teamId != null) {
+                ids.add(teamId);
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stale.addAll(ids);
+                }
+            });
+        } else {
+            stale.addAll(ids);
+        }
+    }
+
+    private void refreshStale() {
+        if (stale.isEmpty()) {
+            return;
+        }
+        // Taken off the set before reading, so a change committed meanwhile marks the team again
+        Set<Long> ids = new HashSet<>();
+        for (Long teamId : stale) {
+            if (stale.remove(teamId)) {
+                ids.add(teamId);
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, TeamMemberService.TeamStatsDTO> reloaded = load(
+                teamMemberRepository.getTeamStatisticsByTeamIdIn(ids), teamMemberRepository.findDtosByTeamIdIn(ids));
+        for (Long teamId : ids) {
+            TeamMemberService.TeamStatsDTO stats = reloaded.get(teamId);
+            if (stats != null) {
+                statsByTeam.put(teamId, stats);
+            } else {
+                statsByTeam.remove(teamId); // Team deleted
+            }
+        }
+    }
+
+    private Map<Long, TeamMemberService.TeamStatsDTO> load(Collection<Object[]> statistics,
+                                                            List<TeamMemberDTO> members) {
+        Map<Long, List<TeamMemberDTO>> membersByTeam = new HashMap<>();
+        for (TeamMemberDTO member : members) {
+            membersByTeam.computeIfAbsent(member.getTeamId(), id -> new ArrayList<>()).add(member);
+        }
+
+        Map<Long, TeamMemberService.TeamStatsDTO> stats = new HashMap<>();
+        for (Object[] row : statistics) {
+            Long teamId = (Long) row[0];
+            Team.Specialization specialization = (Team.Specialization) row[2];
+            stats.put(teamId, TeamMemberService.TeamStatsDTO.builder()
+                    .teamId(teamId)
+                    .teamName((String) row[1])
+                    .specialization(specialization != null ? specialization.name() : null)
+                    .totalMembers(((Number) row[3]).intValue())
+                    .averageAge(row[4] != null ? ((Number) row[4]).doubleValue() : 0)
+                    .totalWorkingHours(row[5] != null ? ((Number) row[5]).intValue() : 0)
+                    .memberDetails(List.copyOf(Objects.requireNonNullElse(membersByTeam.get(teamId), List.of())))
+                    .build());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,350 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AppointmentDTO;
+import com.example.demo.dto.WaitlistEntryResponse;
+import com.example.demo.event.AppointmentEvent;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.exception.ConflictException;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.model.Appointment;
+import com.example.demo.model.AppointmentStatus;
+import com.example.demo.model.NotificationType;
+import com.example.demo.model.User;
+import com.example.demo.model.WaitlistEntry;
+import com.example.demo.model.WaitlistStatus;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.WaitlistEntryRepository;
+import com.example.demo.util.TimeSlots;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Waitlist for fully booked (date, time slot, service) combinations.
+ *
+ * Each combination has a FIFO queue in memory; the waitlist_entries table is the durable copy
+ * and is reloaded on startup. When an appointment frees a slot or a day's service capacity,
+ * the matching queues are promoted on a single worker thread: the head entry is booked through
+ * the normal createAppointment path and the customer is notified. The head only stays in place
+ * when the booking conflicts (the slot was taken again); any other failure marks the entry
+ * FAILED and promotion moves on to the next customer.
+ */
+@Slf4j
+@Service
+public class WaitlistService {
+
+    @Autowired
+    private WaitlistEntryRepository waitlistRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AppointmentService appointmentService;
+
+    @Autowired
+    private SlotReservationService slotReservationService;
+
+    @Autowired
+    private ServiceCapacityService serviceCapacityService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    private final ConcurrentHashMap<WaitlistKey, Deque<WaitlistEntry>> queues = new ConcurrentHashMap<>();
+
+    // Promotions run one at a time, off the request thread that freed the slot
+    private final ExecutorService promotionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "waitlist-promotion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Customer: join the waitlist for a date, time slot and service
+    public WaitlistEntryResponse join(AppointmentDTO request, String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+
+        // Checked now, so a bad request cannot fail at the head of the queue when it is promoted
+        AppointmentService.validateBookingRequest(request);
+        if (request.getServiceType() == null || request.getServiceType().isBlank()) {
+            throw new BadRequestException("Service type is required");
+        }
+        LocalDate slotDate = request.getAppointmentDate().toLocalDate();
+        if (slotDate.isBefore(LocalDate.now())) {
+            throw new BadRequestException("Cannot join the waitlist for a past date");
+        }
+        if (slotReservationService.isAvailable(slotDate, request.getTimeSlot())
+                && serviceCapacityService.hasCapacity(request.getServiceType(), slotDate)) {
+            throw new BadRequestException("This slot is still available; book it directly");
+        }
+        if (waitlistRepository.existsByUserIdAndStatusAndSlotDateAndTimeSlotAndServiceType(
+                user.getId(), WaitlistStatus.WAITING, slotDate, request.getTimeSlot(), request.getServiceType())) {
+            throw new BadRequestException("You are already on the waitlist for this slot");
+        }
+
+        WaitlistEntry entry = WaitlistEntry.builder()
+                .userId(user.getId())
+                .slotDate(slotDate)
+                .appointmentDate(request.getAppointmentDate())
+                .timeSlot(request.getTimeSlot())
+                .serviceType(request.getServiceType())
+                .serviceCategory(request.getServiceCategory())
+                .vehicleType(request.getVehicleType())
+                .vehicleBrand(request.getVehicleBrand())
+                .model(request.getModel())
+                .yearOfManufacture(request.getYearOfManufacture())
+                .registerNumber(request.getRegisterNumber())
+                .fuelType(request.getFuelType())
+                .additionalRequirements(request.getAdditionalRequirements())
+                .status(WaitlistStatus.WAITING)
+                .build();
+        entry = waitlistRepository.save(entry);
+
+        WaitlistKey key = WaitlistKey.of(entry);
+        Deque<WaitlistEntry> queue = queues.computeIfAbsent(key, k -> new ArrayDeque<>());
+        synchronized (queue) {
+            queue.addLast(entry);
+        }
+
+        // The slot may have freed up between the failed booking and joining
+        schedulePromotion(key);
+        return toResponse(entry);
+    }
+
+    // Customer: waitlist entries with their current queue position
+    public List<WaitlistEntryResponse> getEntriesForCustomer(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        return waitlistRepository.findByUserIdOrderByCreatedAtDesc(user.getId()).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    // Customer: leave the waitlist
+    public void leave(Long entryId, String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found"));
+        WaitlistEntry entry = waitlistRepository.findById(entryId)
+                .filter(e -> e.getUserId().equals(user.getId()))
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found"));
+
+        // Under the queue lock so the entry cannot be promoted while it is being removed
+        Deque<WaitlistEntry> queue = queues.getOrDefault(WaitlistKey.of(entry), new ArrayDeque<>());
+        synchronized (queue) {
+            WaitlistEntry current = waitlistRepository.findById(entryId).orElse(entry);
+            if (current.getStatus() != WaitlistStatus.WAITING) {
+                throw new BadRequestException("This waitlist entry is already " + current.getStatus());
+            }
+            queue.removeIf(e -> e.getId().equals(entryId));
+            current.setStatus(WaitlistStatus.CANCELLED);
+            waitlistRepository.save(current);
+        }
+    }
+
+    // Runs after the slot and capacity listeners have released what the appointment held
+    @EventListener
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onAppointmentEvent(AppointmentEvent event) {
+        if (event.getType() == AppointmentEvent.Type.CREATED || event.getStatus() == null) {
+            return;
+        }
+        AppointmentStatus previousStatus = event.getPreviousStatusOrCurrent();
+        LocalDateTime previousDate = event.getPreviousAppointmentDateOrCurrent();
+        String previousSlot = event.getPreviousTimeSlotOrCurrent();
+        String previousServiceType = event.getPreviousServiceTypeOrCurrent();
+        boolean moved = !Objects.equals(previousDate, event.getAppointmentDate())
+                || !Objects.equals(previousSlot, event.getTimeSlot())
+                || !Objects.equals(previousServiceType, event.getServiceType());
+
+        if (!previousStatus.holdsSlot() || previousDate == null || (event.getStatus().holdsSlot() && !moved)) {
+            return; // Nothing was freed
+        }
+
+        // The freed time slot can serve any service, and the freed capacity any time slot that day
+        LocalDate freedDate = previousDate.toLocalDate();
+        String freedSlot = previousSlot != null ? previousSlot.trim() : null;
+        queues.keySet().stream()
+                .filter(key -> key.date().equals(freedDate))
+                .filter(key -> key.timeSlot().equals(freedSlot) || key.serviceType().equals(previousServiceType))
+                .forEach(this::schedulePromotion);
+    }
+
+    // Rebuild the in-memory queues from the table
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadQueues() {
+        List<WaitlistEntry> waiting = waitlistRepository.findByStatusAndSlotDateGreaterThanEqualOrderByIdAsc(
+                WaitlistStatus.WAITING, LocalDate.now());
+        for (WaitlistEntry entry : waiting) {
+            if (!TimeSlots.isKnown(entry.getTimeSlot())) {
+                fail(entry, "unknown time slot " + entry.getTimeSlot());
+                continue;
+            }
+            Deque<WaitlistEntry> queue = queues.computeIfAbsent(WaitlistKey.of(entry), k -> new ArrayDeque<>());
+            synchronized (queue) {
+                queue.addLast(entry);
+            }
+        }
+        queues.keySet().forEach(this::schedulePromotion);
+    }
+
+    // Retry every queue once a minute (covers promotions that hit a transient failure)
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public void promoteAll() {
+        queues.forEach((key, queue) -> {
+            if (!queue.isEmpty()) {
+                schedulePromotion(key);
+            }
+        });
+    }
+
+    // Expire entries for days that have passed
+    @Scheduled(cron = "0 10 0 * * ?")
+    public void expirePastEntries() {
+        LocalDate today = LocalDate.now();
+        waitlistRepository.expireBefore(today);
+        queues.keySet().removeIf(key -> key.date().isBefore(today));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        promotionExecutor.shutdownNow();
+    }
+
+    private void schedulePromotion(WaitlistKey key) {
+        promotionExecutor.execute(() -> promote(key));
+    }
+
+    // Book the head of the queue for as long as the slot is free
+    private void promote(WaitlistKey key) {
+        Deque<WaitlistEntry> queue = queues.get(key);
+        if (queue == null || key.date().isBefore(LocalDate.now())) {
+            return;
+        }
+        synchronized (queue) {
+            while (!queue.isEmpty() && slotReservationService.isAvailable(key.date(), key.timeSlot())) {
+                WaitlistEntry head = queue.peekFirst();
+                Optional<User> customer = userRepository.findById(head.getUserId());
+                if (customer.isEmpty()) {
+                    queue.pollFirst();
+                    head.setStatus(WaitlistStatus.CANCELLED);
+                    waitlistRepository.save(head);
+                    continue;
+                }
+
+                Appointment appointment;
+                try {
+                    appointment = appointmentService.createAppointment(toAppointmentDTO(head), customer.get().getUsername());
+                } catch (ConflictException e) {
+                    return; // Slot or service capacity was taken again; stay at the head of the queue
+                } catch (BadRequestException e) {
+                    // The request itself can never be booked; take the entry out so the queue moves on
+                    queue.pollFirst();
+                    fail(head, e.getMessage());
+                    continue;
+                } catch (RuntimeException e) {
+                    // Possibly transient (database timeout, lock failure): stay WAITING for the scheduled retry
+                    log.warn("Promoting waitlist entry {} failed, will retry: {}", head.getId(), e.getMessage());
+                    return;
+                }
+
+                queue.pollFirst();
+                head.setStatus(WaitlistStatus.PROMOTED);
+                head.setAppointmentId(appointment.getId());
+                head.setPromotedAt(LocalDateTime.now());
+                waitlistRepository.save(head);
+
+                notificationService.notifyCustomer(
+                        head.getUserId(),
+                        appointment.getId(),
+                        "Waitlist Slot Available",
+                        "A slot opened up on " + key.date() + " at " + key.timeSlot() + " for " + key.serviceType() +
+                        ". Your appointment for " + head.getVehicleBrand() + " " + head.getModel() + " has been booked.",
+                        NotificationType.WAITLIST_PROMOTED
+                );
+            }
+        }
+    }
+
+    // The customer sees the FAILED status in their waitlist (notifications need an appointment id)
+    private void fail(WaitlistEntry entry, String reason) {
+        log.warn("Waitlist entry {} could not be booked and was removed from the queue: {}", entry.getId(), reason);
+        entry.setStatus(WaitlistStatus.FAILED);
+        waitlistRepository.save(entry);
+    }
+
+    private AppointmentDTO toAppointmentDTO(WaitlistEntry entry) {
+        return AppointmentDTO.builder()
+                .vehicleType(entry.getVehicleType())
+                .vehicleBrand(entry.getVehicleBrand())
+                .model(entry.getModel())
+                .yearOfManufacture(entry.getYearOfManufacture())
+                .registerNumber(entry.getRegisterNumber())
+                .fuelType(entry.getFuelType())
+                .serviceCategory(entry.getServiceCategory())
+                .serviceType(entry.getServiceType())
+                .additionalRequirements(entry.getAdditionalRequirements())
+                .appointmentDate(entry.getAppointmentDate())
+                .timeSlot(entry.getTimeSlot())
+                .build();
+    }
+
+    private WaitlistEntryResponse toResponse(WaitlistEntry entry) {
+        return WaitlistEntryResponse.builder()
+                .id(entry.getId())
+                .serviceType(entry.getServiceType())
+                .appointmentDate(entry.getAppointmentDate())
+                .timeSlot(entry.getTimeSlot())
+                .vehicleBrand(entry.getVehicleBrand())
+                .model(entry.getModel())
+                .registerNumber(entry.getRegisterNumber())
+                .status(entry.getStatus().name())
+                .position(entry.getStatus() == WaitlistStatus.WAITING ? positionOf(entry) : null)
+                .appointmentId(entry.getAppointmentId())
+                .createdAt(entry.getCreatedAt())
+                .promotedAt(entry.getPromotedAt())
+                .build();
+    }
+
+    private Integer positionOf(WaitlistEntry entry) {
+        Deque<WaitlistEntry> queue = queues.get(WaitlistKey.of(entry));
+        if (queue == null) {
+            return null;
+        }
+        synchronized (queue) {
+            int position = 1;
+            for (WaitlistEntry queued : queue) {
+                if (queued.getId().equals(entry.getId())) {
+                    return position;
+                }
+                position++;
+            }
+        }
+        return null;
+    }
+
+    private record WaitlistKey(LocalDate date, String timeSlot, String serviceType) {
+        static WaitlistKey of(WaitlistEntry entry) {
+            return new WaitlistKey(entry.getSlotDate(), entry.getTimeSlot().trim(), entry.getServiceType());
+        }
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.WorkshopSchedulePlan;
+import com.example.demo.model.Appointment;
+import com.example.demo.model.AppointmentStatus;
+import com.example.demo.model.TeamMember;
+import com.example.demo.repository.AppointmentRepository;
+import com.example.demo.repository.ServiceRepository;
+import com.example.demo.repository.TeamMemberRepository;
+import com.example.demo.scheduling.WorkshopScheduleOptimizer;
+import com.example.demo.util.TimeSlots;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Builds a day plan for the workshop: the day's appointments packed into the team members'
+ * working hours (TeamMember.workingHoursPerDay from the shift start), using each service's
+ * estimated duration and the appointment time slot as the earliest start. The plan is advisory;
+ * nothing is assigned.
+ */
+@Service
+@RequiredArgsConstructor
+public class WorkshopScheduleService {
+
+    private static final double DEFAULT_DURATION_HOURS = 1.0;
+
+    private final AppointmentRepository appointmentRepository;
+    private final ServiceRepository serviceRepository;
+    private final TeamMemberRepository teamMemberRepository;
+
+    @Value("${workshop.schedule.budget-ms:500}")
+    private long budgetMillis;
+
+    @Value("${workshop.shift-start:08:00}")
+    private String shiftStart;
+
+    @Transactional(readOnly = true)
+    public WorkshopSchedulePlan plan(LocalDate date) {
+        Map<String, com.example.demo.model.Service> services = new HashMap<>();
+        for (com.example.demo.model.Service service : serviceRepository.findAll()) {
+            services.putIfAbsent(service.getServiceName(), service);
+        }
+
+        List<Appointment> appointments = appointmentRepository.findWithUserBetween(
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay(),
+                EnumSet.of(AppointmentStatus.PENDING, AppointmentStatus.CONFIRMED, AppointmentStatus.IN_SERVICE));
+        List<WorkshopScheduleOptimizer.Job> jobs = new ArrayList<>(appointments.size());
+        Map<Long, String> serviceTypes = new HashMap<>();
+        for (Appointment appointment : appointments) {
+            com.example.demo.model.Service service = services.get(appointment.getServiceType());
+            double hours = service != null && service.getEstimatedDuration() != null
+                    ? service.getEstimatedDuration() : DEFAULT_DURATION_HOURS;
+            LocalDateTime start = TimeSlots.appointmentStart(appointment.getAppointmentDate(), appointment.getTimeSlot());
+            jobs.add(new WorkshopScheduleOptimizer.Job(appointment.getId(), requiredSpecialization(service),
+                    (int) Math.round(hours * 60), minutes(start.toLocalTime())));
+            serviceTypes.put(appointment.getId(), appointment.getServiceType());
+        }
+
+        int shiftStartMinutes = minutes(LocalTime.parse(shiftStart));
+        List<TeamMember> members = teamMemberRepository.findAll();
+        List<WorkshopScheduleOptimizer.Staff> staff = new ArrayList<>(members.size());
+        Map<Long, TeamMember> membersById = new HashMap<>();
+        for (TeamMember member : members) {
+            int hours = workingHours(member);
+            if (hours > 0) {
+                staff.add(new WorkshopScheduleOptimizer.Staff(member.getId(),
+                        member.getSpecialization() != null ? member.getSpecialization().name() : null,
+                        shiftStartMinutes, Math.min(shiftStartMinutes + hours * 60, 24 * 60)));
+                membersById.put(member.getId(), member);
+            }
+        }
+
+        WorkshopScheduleOptimizer.Result result = new WorkshopScheduleOptimizer(budgetMillis, date.toEpochDay())
+                .optimize(jobs, staff);
+
+        List<WorkshopSchedulePlan.StaffTimeline> timelines = new ArrayList<>(staff.size());
+        for (WorkshopScheduleOptimizer.Staff member : staff) {
+            List<WorkshopSchedulePlan.ScheduledJob> scheduled = new ArrayList<>();
+            for (WorkshopScheduleOptimizer.Placement placement : result.timelines().get(member.id())) {
+                scheduled.add(WorkshopSchedulePlan.ScheduledJob.builder()
+                        .appointmentId(placement.jobId())
+                        .serviceType(serviceTypes.get(placement.jobId()))
+                        .start(toTime(placement.start()))
+                        .end(toTime(placement.end()))
+                        .build());
+            }
+            int busy = result.busyMinutes().get(member.id());
+            TeamMember teamMember = membersById.get(member.id());
+            timelines.add(WorkshopSchedulePlan.StaffTimeline.builder()
+                    .teamMemberId(member.id())
+                    .fullName(teamMember.getFullName())
+                    .specialization(member.skill())
+                    .shiftStart(toTime(member.shiftStart()))
+                    .shiftEnd(toTime(member.shiftEnd()))
+                    .busyHours(busy / 60.0)
+                    .utilisation((double) busy / (member.shiftEnd() - member.shiftStart()))
+                    .jobs(scheduled)
+                    .build());
+        }
+
+        return WorkshopSchedulePlan.builder()
+                .date(date)
+                .appointments(jobs.size())
+                .scheduled(jobs.size() - result.unscheduled().size())
+                .staff(staff.size())
+                .utilisation(result.utilisation())
+                .greedyScheduled(result.greedyScheduled())
+                .iterations(result.iterations())
+                .elapsedMillis(result.elapsedMillis())
+                .timelines(timelines)
+                .unscheduledAppointmentIds(result.unscheduled())
+                .build();
+    }
+
+    // The specialization named in the service's required skills or category, if any
+    private String requiredSpecialization(com.example.demo.model.Service service) {
+        if (service == null) {
+            return null;
+        }
+        String text = ((service.getRequiredSkills() != null ? service.getRequiredSkills() : "") + " " +
+                (service.getCategory() != null ? service.getCategory() : "")).toUpperCase(Locale.ROOT);
+        for (TeamMember.Specialization specialization : TeamMember.Specialization.values()) {
+            String name = specialization.name();
+            String stem = name.endsWith("S") ? name.substring(0, name.length() - 1) : name; // BRAKES -> BRAKE
+            if (text.contains(stem)) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    private int workingHours(TeamMember member) {
+        return member.getWorkingHoursPerDay() != null ? member.getWorkingHoursPerDay() : 0;
+    }
+
+    private static int minutes(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static LocalTime toTime(int minutes) {
+        return minutes >= 24 * 60 ? LocalTime.MAX : LocalTime.of(minutes / 60, minutes % 60);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.demo.util;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: one record at a time, quoted fields may contain commas,
+ * doubled quotes and line breaks. Only the current record is held in memory, and it may not be
+ * longer than maxRecordChars, so a stray quote cannot pull the rest of the file into memory.
+ */
+public class CsvReader implements Closeable {
+
+    public static final int DEFAULT_MAX_RECORD_CHARS = 64 * 1024;
+
+    /**
+     * The input cannot be read past this record (too long, or a quote is never closed)
+     */
+    public static class MalformedCsvException extends IOException {
+        private final int line;
+
+        public MalformedCsvException(int line, String message) {
+            super(message);
+            this.line = line;
+        }
+
+        public int getLine() {
+            return line;
+        }
+    }
+
+    private final BufferedReader reader;
+    private final int maxRecordChars;
+    private int line = 1;
+    private int recordLine;
+    private boolean started;
+
+    public CsvReader(Reader reader) {
+        this(reader, DEFAULT_MAX_RECORD_CHARS);
+    }
+
+    public CsvReader(Reader reader, int maxRecordChars) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    /**
+     * The next record, or null at the end of the input. Blank lines are skipped.
+     *
+     * @throws MalformedCsvException when the record is longer than maxRecordChars or ends inside quotes
+     */
+    public List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        int length = 0;
+        recordLine = line;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            if (++length > maxRecordChars) {
+                throw new MalformedCsvException(recordLine, "Record is longer than " + maxRecordChars +
+                        " characters" + (quoted ? " (is a quote left open?)" : ""));
+            }
+            if (!started) {
+                started = true;
+                if (c == '\uFEFF') { // Byte order mark from spreadsheet exports
+                    continue;
+                }
+            }
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+                continue;
+            }
+            switch (c) {
+                case '"' -> {
+                    quoted = true;
+                    any = true;
+                }
+                case ',' -> {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    any = true;
+                }
+                case '\r' -> {
+                    // Ends the record together with the following \n
+                }
+                case '\n' -> {
+                    line++;
+                    if (any || field.length() > 0) {
+                        fields.add(field.toString());
+                        return fields;
+                    }
+                    recordLine = line; // Blank line
+                    length = 0;
+                }
+                default -> {
+                    field.append((char) c);
+                    any = true;
+                }
+            }
+        }
+        if (quoted) {
+            throw new MalformedCsvException(recordLine, "Quoted field is never closed");
+        }
+        if (any || field.length() > 0) {
+            fields.add(field.toString());
+            return fields;
+        }
+        return null;
+    }
+
+    /**
+     * Line number where the last record returned by readRecord started (1-based)
+     */
+    public int getRecordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.util;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Parsing for appointment time slot labels such as "09:00 AM", "9:00 AM - 10:00 AM" or "14:00-15:00".
+ */
+public final class TimeSlots {
+
+    private static final Pattern TIME = Pattern.compile("(\\d{1,2})[:.](\\d{2})\\s*([AaPp][Mm])?");
+    // A whole label: one time, or a start and end time separated by a dash
+    private static final Pattern SLOT_LABEL = Pattern.compile(
+            "\\s*" + TIME.pattern() + "(\\s*-\\s*" + TIME.pattern() + ")?\\s*");
+    private static final DateTimeFormatter LABEL = DateTimeFormatter.ofPattern("hh:mm a", Locale.ENGLISH);
+
+    /**
+     * Start times of the bookable slots: every half hour from 08:00 to 17:30 (the workshop is
+     * open 8:00 AM to 6:00 PM). A label is a known slot when its start time is one of these.
+     */
+    public static final List<LocalTime> SLOT_STARTS = halfHoursBetween(LocalTime.of(8, 0), LocalTime.of(18, 0));
+
+    private TimeSlots() {
+    }
+
+    // Start time of the slot (the first time in the label)
+    public static Optional<LocalTime> parseStart(String timeSlot) {
+        if (timeSlot == null) {
+            return Optional.empty();
+        }
+        Matcher matcher = TIME.matcher(timeSlot);
+        return matcher.find() ? toTime(matcher) : Optional.empty();
+    }
+
+    /**
+     * Position of the label's start time in SLOT_STARTS, or empty when it is not a bookable slot
+     */
+    public static OptionalInt slotIndex(String timeSlot) {
+        if (timeSlot == null || timeSlot.length() > 32 || !SLOT_LABEL.matcher(timeSlot).matches()) {
+            return OptionalInt.empty();
+        }
+        Optional<LocalTime> start = parseStart(timeSlot);
+        if (start.isEmpty()) {
+            return OptionalInt.empty();
+        }
+        int index = SLOT_STARTS.indexOf(start.get());
+        return index < 0 ? OptionalInt.empty() : OptionalInt.of(index);
+    }
+
+    public static boolean isKnown(String timeSlot) {
+        return slotIndex(timeSlot).isPresent();
+    }
+
+    // Label for a slot start, e.g. "09:30 AM"
+    public static String label(LocalTime start) {
+        return start.format(LABEL);
+    }
+
+    /**
+     * When the appointment starts: appointmentDate if it carries a time of day, otherwise the
+     * date combined with the slot's start time.
+     */
+    public static LocalDateTime appointmentStart(LocalDateTime appointmentDate, String timeSlot) {
+        if (appointmentDate == null || !appointmentDate.toLocalTime().equals(LocalTime.MIDNIGHT)) {
+            return appointmentDate;
+        }
+        return parseStart(timeSlot)
+                .map(start -> appointmentDate.toLocalDate().atTime(start))
+                .orElse(appointmentDate);
+    }
+
+    private static List<LocalTime> halfHoursBetween(LocalTime first, LocalTime end) {
+        return Stream.iterate(first, time -> time.isBefore(end), time -> time.plusMinutes(30))
+                .toList();
+    }
+
+    private static Optional<LocalTime> toTime(Matcher matcher) {
+        int hour = Integer.parseInt(matcher.group(1));
+        int minute = Integer.parseInt(matcher.group(2));
+        String meridiem = matcher.group(3);
+        if (meridiem != null) {
+            boolean pm = meridiem.equalsIgnoreCase("pm");
+            if (hour == 12) {
+                hour = pm ? 12 : 0;
+            } else if (pm) {
+                hour += 12;
+            }
+        }
+        if (hour > 23 || minute > 59) {
+            return Optional.empty();
+        }
+        return Optional.of(LocalTime.of(hour, minute));
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo;
+
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Configuration for @DataJpaTest slices. AsmsBackendApplication needs the full context, so slice
+ * tests point at this class with @ContextConfiguration and @Import the services they exercise.
+ * It is deliberately not a @Configuration, so the application's component scan never picks it up.
+ */
+@EnableAutoConfiguration
+@EntityScan("com.example.demo.model")
+@EnableJpaRepositories("com.example.demo.repository")
+public class JpaSliceTestConfig {
+}
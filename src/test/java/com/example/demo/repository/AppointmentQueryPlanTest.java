@@ -0,0 +1,135 @@
+package com.example.demo.repository;
+
+import com.example.demo.JpaSliceTestConfig;
+import com.example.demo.model.Appointment;
+import com.example.demo.model.AppointmentStatus;
+import com.example.demo.model.Role;
+import com.example.demo.model.User;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the per-day appointment queries against predicates that defeat the appointment_date indexes
+ * (e.g. CAST(appointment_date AS date) = ?). Captures the SQL Hibernate generates and checks the H2 plan.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.demo.repository.AppointmentQueryPlanTest$SqlRecorder")
+@ContextConfiguration(classes = JpaSliceTestConfig.class)
+class AppointmentQueryPlanTest {
+
+    public static class SqlRecorder implements StatementInspector {
+        static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    private static final Pattern INDEX_IN_PLAN = Pattern.compile("/\\* PUBLIC\\.(\\w+)[:*]");
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate day = LocalDate.of(2030, 1, 15);
+
+    @BeforeEach
+    void setUp() {
+        User customer = userRepository.save(User.builder()
+                .username("plan-customer")
+                .email("plan-customer@test.com")
+                .password("secret")
+                .role(Role.CUSTOMER)
+                .build());
+        for (int i = 0; i < 20; i++) {
+            appointmentRepository.save(Appointment.builder()
+                    .vehicleType("Car")
+                    .vehicleBrand("Toyota")
+                    .registerNumber("CAB-" + i)
+                    .serviceType(i % 2 == 0 ? "Oil Change" : "Brake Service")
+                    .appointmentDate(day.plusDays(i % 5).atTime(9, 0))
+                    .timeSlot("09:00 AM")
+                    .status(AppointmentStatus.PENDING)
+                    .user(customer)
+                    .build());
+        }
+        appointmentRepository.flush();
+    }
+
+    @Test
+    void countByServiceAndDateUsesServiceDateIndex() {
+        String sql = captureSql(() -> appointmentRepository.countAppointmentsByServiceAndDate("Oil Change", day));
+
+        String plan = explain(sql, "Oil Change", day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+
+        assertThat(plan).doesNotContainIgnoringCase("tableScan");
+        assertThat(indexUsed(plan)).isEqualTo("IDX_APPOINTMENTS_SERVICE_DATE");
+    }
+
+    @Test
+    void bookedTimeSlotsByDateUsesDateIndex() {
+        String sql = captureSql(() -> appointmentRepository.findBookedTimeSlotsByDate(day));
+
+        String plan = explain(sql, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+
+        assertThat(plan).doesNotContainIgnoringCase("tableScan");
+        assertThat(indexUsed(plan)).isEqualTo("IDX_APPOINTMENTS_DATE_ID");
+    }
+
+    @Test
+    void perServiceCountsByDateUseDateIndex() {
+        String sql = captureSql(() -> appointmentRepository.countAppointmentsPerServiceByDate(day));
+
+        String plan = explain(sql, day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+
+        assertThat(plan).doesNotContainIgnoringCase("tableScan");
+        assertThat(indexUsed(plan)).isEqualTo("IDX_APPOINTMENTS_DATE_ID");
+    }
+
+    @Test
+    void rangeQueriesReturnOnlyTheRequestedDay() {
+        assertThat(appointmentRepository.findBookedTimeSlotsByDate(day)).hasSize(4);
+        assertThat(appointmentRepository.countAppointmentsByServiceAndDate("Oil Change", day)).isEqualTo(2L);
+        assertThat(appointmentRepository.countAppointmentsPerServiceByDate(day.plusDays(1))).hasSize(2);
+    }
+
+    private String captureSql(Runnable query) {
+        SqlRecorder.STATEMENTS.clear();
+        query.run();
+        assertThat(SqlRecorder.STATEMENTS).isNotEmpty();
+        return SqlRecorder.STATEMENTS.get(SqlRecorder.STATEMENTS.size() - 1);
+    }
+
+    // H2 names the index it scans in a comment: /* PUBLIC.IDX_NAME: condition */
+    private String indexUsed(String plan) {
+        Matcher matcher = INDEX_IN_PLAN.matcher(plan);
+        assertThat(matcher.find()).as("index in plan:%n%s", plan).isTrue();
+        return matcher.group(1).toUpperCase(Locale.ROOT);
+    }
+
+    private String explain(String sql, Object... params) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, params));
+    }
+}
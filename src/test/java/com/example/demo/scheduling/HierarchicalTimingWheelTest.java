@@ -0,0 +1,88 @@
+package com.example.demo.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A small wheel (10 ms ticks, 4 buckets, 3 levels: spans of 40, 160 and 640 ms) so tasks cross
+ * every level within a few dozen ticks.
+ */
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK = 10;
+
+    private final HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(TICK, 4, 3, 0);
+
+    @Test
+    void tasksCascadeDownTheLevelsAndExpireInTheirTick() {
+        wheel.schedule("level 0", 15);
+        wheel.schedule("level 1", 55);
+        wheel.schedule("level 2", 170);
+        wheel.schedule("top bucket", 630);
+
+        Map<String, Long> firedAt = new HashMap<>();
+        for (long now = TICK; now <= 700; now += TICK) {
+            if (now == 130) {
+                // Scheduled mid-way through a level-1 and a level-2 bucket
+                wheel.schedule("late", 300);
+            }
+            for (String task : wheel.advance(now)) {
+                firedAt.put(task, now);
+            }
+        }
+
+        assertThat(firedAt).containsOnly(
+                Map.entry("level 0", 10L),
+                Map.entry("level 1", 50L),
+                Map.entry("level 2", 170L),
+                Map.entry("top bucket", 630L),
+                Map.entry("late", 300L));
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void oneLargeAdvanceReturnsTasksInDeadlineOrder() {
+        wheel.schedule("c", 500);
+        wheel.schedule("a", 25);
+        wheel.schedule("b", 140);
+
+        assertThat(wheel.advance(600)).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    void cancelledTaskNeverFires() {
+        HierarchicalTimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 200);
+        wheel.schedule("kept", 200);
+        cancelled.cancel();
+
+        assertThat(wheel.advance(300)).containsExactly("kept");
+        assertThat(wheel.size()).isZero(); // The cancelled entry was dropped when its bucket was flushed
+    }
+
+    @Test
+    void deadlineAlreadyDueIsNotScheduled() {
+        HierarchicalTimingWheel<String> started = new HierarchicalTimingWheel<>(TICK, 4, 3, 100);
+
+        assertThat(started.schedule("past", 95)).isNull();
+        assertThat(started.schedule("this tick", 105)).isNull();
+        assertThat(started.schedule("next tick", 110)).isNotNull();
+        assertThat(started.size()).isEqualTo(1);
+    }
+
+    @Test
+    void deadlineBeyondTheTopLevelIsNotScheduled() {
+        assertThat(wheel.maxDeadline()).isEqualTo(640);
+        assertThat(wheel.schedule("too far", 640)).isNull();
+        assertThat(wheel.schedule("last", 639)).isNotNull();
+
+        // The reach moves with the wheel
+        wheel.advance(320);
+        assertThat(wheel.maxDeadline()).isEqualTo(960);
+        assertThat(wheel.schedule("later", 900)).isNotNull();
+        assertThat(wheel.advance(1000)).containsExactly("last", "later");
+    }
+}
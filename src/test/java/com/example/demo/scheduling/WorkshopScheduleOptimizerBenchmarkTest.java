@@ -0,0 +1,77 @@
+package com.example.demo.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Benchmark for a busy day: 1,000 appointments and 200 staff with mixed specializations and
+ * shift lengths, more work than the staff hours can hold. Checks that the plan is valid, that
+ * local search does not lose anything the greedy pass scheduled, and that the time budget holds.
+ */
+class WorkshopScheduleOptimizerBenchmarkTest {
+
+    private static final String[] SKILLS = {
+            "ENGINE", "TRANSMISSION", "SUSPENSION", "BRAKES", "ELECTRICAL", "BODYWORK", "INTERIOR", "DIAGNOSTICS"
+    };
+    private static final int[] SHIFT_HOURS = {4, 6, 8};
+    private static final long BUDGET_MILLIS = 1000;
+
+    @Test
+    void packsThousandAppointmentsForTwoHundredStaffWithinBudget() {
+        Random random = new Random(42);
+        List<WorkshopScheduleOptimizer.Staff> staff = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int start = 8 * 60;
+            staff.add(new WorkshopScheduleOptimizer.Staff(i + 1, SKILLS[i % SKILLS.length],
+                    start, start + SHIFT_HOURS[random.nextInt(SHIFT_HOURS.length)] * 60));
+        }
+        List<WorkshopScheduleOptimizer.Job> jobs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String skill = random.nextInt(10) < 7 ? SKILLS[random.nextInt(SKILLS.length)] : null;
+            int duration = 30 * (1 + random.nextInt(5));
+            int earliest = (8 + random.nextInt(8)) * 60;
+            jobs.add(new WorkshopScheduleOptimizer.Job(10_000 + i, skill, duration, earliest));
+        }
+
+        WorkshopScheduleOptimizer.Result result = new WorkshopScheduleOptimizer(BUDGET_MILLIS, 7).optimize(jobs, staff);
+
+        assertValid(result, jobs, staff);
+        int scheduled = jobs.size() - result.unscheduled().size();
+        assertThat(scheduled).isGreaterThanOrEqualTo(result.greedyScheduled());
+        assertThat(result.elapsedMillis()).isLessThan(BUDGET_MILLIS + 1000);
+    }
+
+    private void assertValid(WorkshopScheduleOptimizer.Result result,
+                             List<WorkshopScheduleOptimizer.Job> jobs,
+                             List<WorkshopScheduleOptimizer.Staff> staff) {
+        Map<Long, WorkshopScheduleOptimizer.Job> jobsById = new HashMap<>();
+        jobs.forEach(job -> jobsById.put(job.id(), job));
+        Set<Long> seen = new HashSet<>(result.unscheduled());
+
+        for (WorkshopScheduleOptimizer.Staff member : staff) {
+            int previousEnd = member.shiftStart();
+            int busy = 0;
+            for (WorkshopScheduleOptimizer.Placement placement : result.timelines().get(member.id())) {
+                WorkshopScheduleOptimizer.Job job = jobsById.get(placement.jobId());
+                assertThat(seen.add(job.id())).as("job %d placed once", job.id()).isTrue();
+                assertThat(job.skill() == null || job.skill().equals(member.skill())).isTrue();
+                assertThat(placement.start()).isGreaterThanOrEqualTo(Math.max(previousEnd, job.earliestStart()));
+                assertThat(placement.end() - placement.start()).isEqualTo(job.durationMinutes());
+                assertThat(placement.end()).isLessThanOrEqualTo(member.shiftEnd());
+                previousEnd = placement.end();
+                busy += job.durationMinutes();
+            }
+            assertThat(result.busyMinutes().get(member.id())).isEqualTo(busy);
+        }
+        assertThat(seen).hasSize(jobs.size());
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.demo.security;
+
+import com.example.demo.service.IdempotencyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class IdempotencyFilterTest {
+
+    private final IdempotencyService idempotencyService = mock(IdempotencyService.class);
+    private final IdempotencyFilter filter = new IdempotencyFilter(idempotencyService, new ObjectMapper().findAndRegisterModules());
+
+    @BeforeEach
+    void logIn() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("customer1", null, List.of()));
+    }
+
+    @AfterEach
+    void logOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authResponsesAreNeverStored() throws Exception {
+        MockHttpServletRequest request = post("/api/auth/login");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        verifyNoInteractions(idempotencyService);
+    }
+
+    @Test
+    void retryGetsTheStoredResponse() throws Exception {
+        when(idempotencyService.begin(anyString(), anyString())).thenReturn(new IdempotencyService.Decision(
+                IdempotencyService.Outcome.REPLAY,
+                new IdempotencyService.CachedResponse("fp", 201, "application/json", "{\"id\":7}",
+                        LocalDateTime.now().plusHours(1))));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(post("/api/customer/appointments"), response, chain);
+
+        assertThat(chain.getRequest()).isNull(); // The controller is not reached
+        assertThat(response.getStatus()).isEqualTo(201);
+        assertThat(response.getHeader("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":7}");
+    }
+
+    @Test
+    void conflictAndMismatchAreRejected() throws Exception {
+        when(idempotencyService.begin(anyString(), anyString()))
+                .thenReturn(new IdempotencyService.Decision(IdempotencyService.Outcome.IN_PROGRESS, null))
+                .thenReturn(new IdempotencyService.Decision(IdempotencyService.Outcome.MISMATCH, null));
+
+        MockHttpServletResponse inProgress = new MockHttpServletResponse();
+        filter.doFilter(post("/api/customer/appointments"), inProgress, new MockFilterChain());
+        MockHttpServletResponse mismatch = new MockHttpServletResponse();
+        filter.doFilter(post("/api/customer/appointments"), mismatch, new MockFilterChain());
+
+        assertThat(inProgress.getStatus()).isEqualTo(409);
+        assertThat(mismatch.getStatus()).isEqualTo(422);
+    }
+
+    @Test
+    void csvUploadsStreamThroughUntouched() throws Exception {
+        MockHttpServletRequest request = post("/api/employee/member-import");
+        request.setContentType("text/csv");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request); // Not wrapped, so the body was never buffered
+        verifyNoInteractions(idempotencyService);
+    }
+
+    @Test
+    void oversizedBodyIsRejected() throws Exception {
+        MockHttpServletRequest request = post("/api/customer/appointments");
+        request.setContent(new byte[IdempotencyFilter.MAX_BODY_BYTES + 1]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+        verifyNoInteractions(idempotencyService);
+    }
+
+    @Test
+    void keysFromAnonymousCallersAreRejected() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken(
+                "key", "anonymousUser", List.of(new SimpleGrantedAuthority("ROLE_ANONYMOUS"))));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(post("/api/customer/appointments"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(400);
+        verifyNoInteractions(idempotencyService);
+    }
+
+    private MockHttpServletRequest post(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.addHeader(IdempotencyFilter.HEADER, "key-1");
+        request.setContentType("application/json");
+        request.setContent("{\"serviceType\":\"Oil Change\"}".getBytes());
+        return request;
+    }
+}
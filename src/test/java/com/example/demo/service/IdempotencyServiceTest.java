@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import com.example.demo.JpaSliceTestConfig;
+import com.example.demo.model.IdempotencyRecord;
+import com.example.demo.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Outcomes of IdempotencyService.begin against the real table: replay, mismatch, a key still in
+ * progress, and an abandoned key being taken over once its lease runs out.
+ */
+@DataJpaTest(properties = "idempotency.lease-seconds=60")
+@ContextConfiguration(classes = JpaSliceTestConfig.class)
+@Import(IdempotencyService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // The service claims keys in its own transactions
+class IdempotencyServiceTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Test
+    void completedRequestIsReplayed() {
+        String key = newKey();
+        assertThat(idempotencyService.begin(key, "fp").outcome()).isEqualTo(IdempotencyService.Outcome.PROCEED);
+        idempotencyService.complete(key, "fp", 201, "application/json", "{\"id\":7}");
+
+        IdempotencyService.Decision retry = idempotencyService.begin(key, "fp");
+
+        assertThat(retry.outcome()).isEqualTo(IdempotencyService.Outcome.REPLAY);
+        assertThat(retry.response().status()).isEqualTo(201);
+        assertThat(retry.response().body()).isEqualTo("{\"id\":7}");
+    }
+
+    @Test
+    void keyReusedForAnotherRequestIsAMismatch() {
+        String key = newKey();
+        idempotencyService.begin(key, "fp");
+
+        assertThat(idempotencyService.begin(key, "other").outcome()).isEqualTo(IdempotencyService.Outcome.MISMATCH);
+
+        idempotencyService.complete(key, "fp", 200, "application/json", "{}");
+        assertThat(idempotencyService.begin(key, "other").outcome()).isEqualTo(IdempotencyService.Outcome.MISMATCH);
+    }
+
+    @Test
+    void retryWhileTheFirstRequestRunsIsAConflict() {
+        String key = newKey();
+        idempotencyService.begin(key, "fp");
+
+        assertThat(idempotencyService.begin(key, "fp").outcome()).isEqualTo(IdempotencyService.Outcome.IN_PROGRESS);
+    }
+
+    @Test
+    void abandonedKeyIsTakenOverAfterTheLease() {
+        String key = newKey();
+        idempotencyService.begin(key, "fp");
+        IdempotencyRecord record = recordRepository.findByScopedKey(key).orElseThrow();
+        record.setStartedAt(LocalDateTime.now().minusMinutes(5)); // The server died mid-request
+        recordRepository.save(record);
+
+        assertThat(idempotencyService.begin(key, "fp").outcome()).isEqualTo(IdempotencyService.Outcome.PROCEED);
+        // The new holder has a fresh lease
+        assertThat(idempotencyService.begin(key, "fp").outcome()).isEqualTo(IdempotencyService.Outcome.IN_PROGRESS);
+    }
+
+    @Test
+    void serverErrorsAreNotStored() {
+        String key = newKey();
+        idempotencyService.begin(key, "fp");
+        idempotencyService.complete(key, "fp", 503, "application/json", "{}");
+
+        assertThat(recordRepository.findByScopedKey(key)).isEmpty();
+        assertThat(idempotencyService.begin(key, "fp").outcome()).isEqualTo(IdempotencyService.Outcome.PROCEED);
+    }
+
+    private String newKey() {
+        return "customer:" + UUID.randomUUID();
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.demo.service;
+
+import com.example.demo.JpaSliceTestConfig;
+import com.example.demo.dto.TeamMemberImportResponse;
+import com.example.demo.model.Team;
+import com.example.demo.repository.TeamMemberRepository;
+import com.example.demo.repository.TeamRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * TeamMemberImportService against the real table: spreadsheet-style CSV input, rows reported by
+ * line, a database rejection reported for the offending row only, and a file that cannot be read
+ * to the end.
+ */
+@DataJpaTest(properties = "team-members.import.batch-size=10")
+@ContextConfiguration(classes = JpaSliceTestConfig.class)
+@Import(TeamMemberImportService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // Chunks are inserted in their own transactions
+class TeamMemberImportServiceTest {
+
+    private static final String HEADER =
+            "fullName,nic,contactNo,birthDate,address,city,specialization,joinedDate,workingHoursPerDay,teamId\r\n";
+
+    @Autowired
+    private TeamMemberImportService importService;
+
+    @Autowired
+    private TeamMemberRepository teamMemberRepository;
+
+    @Autowired
+    private TeamRepository teamRepository;
+
+    @MockitoBean
+    private TeamService teamService;
+
+    @MockitoBean
+    private TeamMemberSearchService teamMemberSearchService;
+
+    @MockitoBean
+    private TeamStatsCache teamStatsCache;
+
+    private Long teamId;
+
+    @BeforeEach
+    void setUp() {
+        Team team = new Team();
+        team.setName("Engine Bay");
+        team.setSpecialization(Team.Specialization.ENGINE);
+        teamId = teamRepository.save(team).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        teamMemberRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void importsSpreadsheetExportAndReportsInvalidRowsByLine() throws IOException {
+        String csv = "\uFEFF" + HEADER
+                + row("Nimal Perera", "199012345678", "\"12, Lake Road\nColombo 03\"", teamId)
+                + row("Kamal Silva", "12345", "\"45 \"\"Hill\"\" Street\"", teamId)
+                + row("Sunil Fernando", "199112345678", "78 Temple Road", null);
+
+        TeamMemberImportResponse result = importService.importCsv(new StringReader(csv));
+
+        assertThat(result.getRows()).isEqualTo(3);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(4); // The quoted address on line 2 spans two lines
+            assertThat(error.getMessage()).contains("NIC must be exactly 12 digits");
+        });
+        assertThat(teamMemberRepository.findAll())
+                .anySatisfy(member -> assertThat(member.getAddress()).isEqualTo("12, Lake Road\nColombo 03"));
+    }
+
+    @Test
+    void rowRejectedByTheDatabaseIsTheOnlyOneReported() throws IOException {
+        // Stands in for the team being deleted between the chunk checks and the insert
+        doThrow(new DataIntegrityViolationException("team removed"))
+                .when(teamService).applyMemberDelta(eq(teamId), eq(1), anyInt(), anyInt());
+        String csv = HEADER
+                + row("Nimal Perera", "199012345678", "12 Lake Road", null)
+                + row("Kamal Silva", "199212345678", "45 Hill Street", teamId)
+                + row("Sunil Fernando", "199112345678", "78 Temple Road", null);
+
+        TeamMemberImportResponse result = importService.importCsv(new StringReader(csv));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(3);
+            assertThat(error.getNic()).isEqualTo("199212345678");
+        });
+        assertThat(teamMemberRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void unterminatedQuoteEndsTheImportAtItsLine() throws IOException {
+        String csv = HEADER
+                + row("Nimal Perera", "199012345678", "12 Lake Road", null)
+                + row("Kamal Silva", "199212345678", "\"45 Hill Street", null)
+                + row("Sunil Fernando", "199112345678", "78 Temple Road", null);
+
+        TeamMemberImportResponse result = importService.importCsv(new StringReader(csv));
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(3);
+            assertThat(error.getMessage()).contains("never closed");
+        });
+        assertThat(teamMemberRepository.count()).isEqualTo(1);
+    }
+
+    private static String row(String fullName, String nic, String address, Long teamId) {
+        return fullName + "," + nic + ",0771234567,1990-05-01," + address + ",COLOMBO,ENGINE,2020-01-01,8,"
+                + (teamId != null ? teamId : "") + "\r\n";
+    }
+}
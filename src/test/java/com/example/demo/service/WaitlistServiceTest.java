@@ -0,0 +1,230 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.AppointmentDTO;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.exception.ConflictException;
+import com.example.demo.model.Appointment;
+import com.example.demo.model.User;
+import com.example.demo.model.WaitlistEntry;
+import com.example.demo.model.WaitlistStatus;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.repository.WaitlistEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Queue behaviour of WaitlistService: FIFO promotion when the slot frees up, a conflicting
+ * booking keeping its place, and a head entry that can never be booked not blocking the rest.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class WaitlistServiceTest {
+
+    private static final String TIME_SLOT = "09:00 AM";
+    private static final String SERVICE_TYPE = "Oil Change";
+
+    @Mock
+    private WaitlistEntryRepository waitlistRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private AppointmentService appointmentService;
+
+    @Mock
+    private SlotReservationService slotReservationService;
+
+    @Mock
+    private ServiceCapacityService serviceCapacityService;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @InjectMocks
+    private WaitlistService waitlistService;
+
+    private final LocalDate day = LocalDate.now().plusDays(3);
+    private final AtomicInteger freeSlots = new AtomicInteger();
+    private final AtomicLong ids = new AtomicLong();
+    private final List<WaitlistEntry> joined = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(waitlistRepository.save(any(WaitlistEntry.class))).thenAnswer(invocation -> {
+            WaitlistEntry entry = invocation.getArgument(0);
+            if (entry.getId() == null) {
+                entry.setId(ids.incrementAndGet());
+                joined.add(entry);
+            }
+            return entry;
+        });
+        for (long id = 1; id <= 3; id++) {
+            User user = User.builder().id(id).username("customer" + id).build();
+            when(userRepository.findByUsername(user.getUsername())).thenReturn(Optional.of(user));
+            when(userRepository.findById(id)).thenReturn(Optional.of(user));
+        }
+        when(slotReservationService.isAvailable(day, TIME_SLOT)).thenAnswer(invocation -> freeSlots.get() > 0);
+        when(serviceCapacityService.hasCapacity(SERVICE_TYPE, day)).thenReturn(true);
+        when(appointmentService.createAppointment(any(AppointmentDTO.class), anyString())).thenAnswer(invocation -> {
+            freeSlots.decrementAndGet();
+            return Appointment.builder().id(ids.incrementAndGet()).build();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        waitlistService.shutdown();
+    }
+
+    @Test
+    void freedSlotsArePromotedInJoinOrder() throws Exception {
+        List<WaitlistEntry> entries = joinAll();
+
+        freeSlot();
+        assertThat(entries).extracting(WaitlistEntry::getStatus)
+                .containsExactly(WaitlistStatus.PROMOTED, WaitlistStatus.WAITING, WaitlistStatus.WAITING);
+
+        freeSlot();
+        freeSlot();
+        InOrder order = inOrder(appointmentService);
+        order.verify(appointmentService).createAppointment(any(AppointmentDTO.class), eq("customer1"));
+        order.verify(appointmentService).createAppointment(any(AppointmentDTO.class), eq("customer2"));
+        order.verify(appointmentService).createAppointment(any(AppointmentDTO.class), eq("customer3"));
+        assertThat(entries).extracting(WaitlistEntry::getStatus).containsOnly(WaitlistStatus.PROMOTED);
+    }
+
+    @Test
+    void conflictKeepsTheHeadInPlace() throws Exception {
+        List<WaitlistEntry> entries = joinAll();
+        when(appointmentService.createAppointment(any(AppointmentDTO.class), eq("customer1")))
+                .thenThrow(new ConflictException("Oil Change is fully booked"));
+
+        freeSlot();
+
+        assertThat(entries.get(0).getStatus()).isEqualTo(WaitlistStatus.WAITING);
+        verify(appointmentService, never()).createAppointment(any(AppointmentDTO.class), eq("customer2"));
+    }
+
+    @Test
+    void headThatCannotBeBookedIsFailedAndSkipped() throws Exception {
+        List<WaitlistEntry> entries = joinAll();
+        when(appointmentService.createAppointment(any(AppointmentDTO.class), eq("customer1")))
+                .thenThrow(new BadRequestException("Vehicle type, vehicle brand and register number are required"));
+
+        freeSlot();
+        waitlistService.promoteAll();
+        awaitPromotions();
+
+        assertThat(entries).extracting(WaitlistEntry::getStatus)
+                .containsExactly(WaitlistStatus.FAILED, WaitlistStatus.PROMOTED, WaitlistStatus.WAITING);
+        // Not retried by the periodic pass
+        verify(appointmentService, times(1)).createAppointment(any(AppointmentDTO.class), eq("customer1"));
+    }
+
+    @Test
+    void transientFailureKeepsTheHeadWaitingForTheRetry() throws Exception {
+        List<WaitlistEntry> entries = joinAll();
+        when(appointmentService.createAppointment(any(AppointmentDTO.class), eq("customer1")))
+                .thenThrow(new QueryTimeoutException("statement timeout"))
+                .thenAnswer(invocation -> {
+                    freeSlots.decrementAndGet();
+                    return Appointment.builder().id(ids.incrementAndGet()).build();
+                });
+
+        freeSlot();
+        assertThat(entries).extracting(WaitlistEntry::getStatus).containsOnly(WaitlistStatus.WAITING);
+        verify(appointmentService, never()).createAppointment(any(AppointmentDTO.class), eq("customer2"));
+
+        waitlistService.promoteAll(); // The scheduled retry
+        awaitPromotions();
+        assertThat(entries).extracting(WaitlistEntry::getStatus)
+                .containsExactly(WaitlistStatus.PROMOTED, WaitlistStatus.WAITING, WaitlistStatus.WAITING);
+    }
+
+    @Test
+    void joinRejectsRequestsThatCouldNeverBeBooked() {
+        AppointmentDTO request = request();
+        request.setRegisterNumber(null);
+
+        assertThatThrownBy(() -> waitlistService.join(request, "customer1"))
+                .isInstanceOf(BadRequestException.class);
+
+        AppointmentDTO unknownSlot = request();
+        unknownSlot.setTimeSlot("any time");
+        assertThatThrownBy(() -> waitlistService.join(unknownSlot, "customer1"))
+                .isInstanceOf(BadRequestException.class);
+        verify(waitlistRepository, never()).save(any(WaitlistEntry.class));
+    }
+
+    @Test
+    void joinRejectsSlotsThatAreStillFree() {
+        freeSlots.set(1);
+
+        assertThatThrownBy(() -> waitlistService.join(request(), "customer1"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("still available");
+    }
+
+    private List<WaitlistEntry> joinAll() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            waitlistService.join(request(), "customer" + i);
+        }
+        awaitPromotions();
+        return joined;
+    }
+
+    private void freeSlot() throws Exception {
+        freeSlots.incrementAndGet();
+        waitlistService.promoteAll();
+        awaitPromotions();
+    }
+
+    // Promotions run on the service's single worker thread; a no-op task completes after them
+    private void awaitPromotions() throws Exception {
+        ExecutorService executor = (ExecutorService) ReflectionTestUtils.getField(waitlistService, "promotionExecutor");
+        executor.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    private AppointmentDTO request() {
+        return AppointmentDTO.builder()
+                .vehicleType("Car")
+                .vehicleBrand("Toyota")
+                .model("Corolla")
+                .registerNumber("CAB-1234")
+                .serviceType(SERVICE_TYPE)
+                .appointmentDate(day.atStartOfDay())
+                .timeSlot(TIME_SLOT)
+                .build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.demo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader(
+                "name,address\n\"Perera, Nimal\",\"12 \"\"Lake\"\" Rd\nColombo\"\nSilva,Kandy\n"));
+
+        assertThat(csv.readRecord()).containsExactly("name", "address");
+        assertThat(csv.readRecord()).containsExactly("Perera, Nimal", "12 \"Lake\" Rd\nColombo");
+        assertThat(csv.getRecordLine()).isEqualTo(2);
+        assertThat(csv.readRecord()).containsExactly("Silva", "Kandy");
+        assertThat(csv.getRecordLine()).isEqualTo(4); // After the quoted line break
+        assertThat(csv.readRecord()).isNull();
+    }
+
+    @Test
+    void byteOrderMarkCrlfAndBlankLinesAreHandled() throws IOException {
+        List<List<String>> records = readAll("\uFEFFname,city\r\n\r\nSilva,Kandy\r\n,\r\nPerera,Galle");
+
+        assertThat(records).containsExactly(
+                List.of("name", "city"), List.of("Silva", "Kandy"), List.of("", ""), List.of("Perera", "Galle"));
+    }
+
+    @Test
+    void unterminatedQuoteFailsAtTheRecordWhereItStarted() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("name,city\nSilva,\"Kandy\nPerera,Galle\n"));
+        csv.readRecord();
+
+        assertThatThrownBy(csv::readRecord)
+                .isInstanceOfSatisfying(CsvReader.MalformedCsvException.class, e -> assertThat(e.getLine()).isEqualTo(2))
+                .hasMessageContaining("never closed");
+    }
+
+    @Test
+    void recordLongerThanTheLimitIsNotBuffered() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("name,city\nSilva,\"" + "x".repeat(200) + "\"\n"), 64);
+        csv.readRecord();
+
+        assertThatThrownBy(csv::readRecord)
+                .isInstanceOfSatisfying(CsvReader.MalformedCsvException.class, e -> assertThat(e.getLine()).isEqualTo(2))
+                .hasMessageContaining("longer than 64 characters");
+    }
+
+    private List<List<String>> readAll(String input) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader csv = new CsvReader(new StringReader(input))) {
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}